@@ -0,0 +1,82 @@
+package co.cmatts.aws.dynamo;
+
+import java.util.function.LongSupplier;
+
+public class AdaptiveRateLimiter {
+    private static final double UNITS_PER_ITEM_WEIGHT = 0.2;
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final ThrottleConfig config;
+    private final LongSupplier clock;
+    private double rate;
+    private double tokens;
+    private double unitsPerItem = 1.0;
+    private long lastRefill;
+
+    public AdaptiveRateLimiter(ThrottleConfig config) {
+        this(config, System::nanoTime);
+    }
+
+    AdaptiveRateLimiter(ThrottleConfig config, LongSupplier clock) {
+        if (config.getMinRate() <= 0.0 || config.getInitialRate() < config.getMinRate() || config.getMaxRate() < config.getInitialRate()) {
+            throw new IllegalArgumentException("A throttle needs 0 < minRate <= initialRate <= maxRate");
+        }
+        if (config.getDecreaseFactor() <= 0.0 || config.getDecreaseFactor() >= 1.0) {
+            throw new IllegalArgumentException("A throttle decrease factor must be between 0 and 1");
+        }
+        this.config = config;
+        this.clock = clock;
+        this.rate = config.getInitialRate();
+        this.tokens = capacity();
+        this.lastRefill = clock.getAsLong();
+    }
+
+    public synchronized long reserve(int items) {
+        refill();
+        tokens -= items * unitsPerItem;
+        if (tokens >= 0.0) {
+            return 0L;
+        }
+        return (long) (-tokens / rate * NANOS_PER_SECOND);
+    }
+
+    public synchronized void onWrite(double consumedUnits, int written, int unprocessed) {
+        if (written > 0 && consumedUnits > 0.0) {
+            unitsPerItem += UNITS_PER_ITEM_WEIGHT * (consumedUnits / written - unitsPerItem);
+        }
+        if (unprocessed > 0) {
+            decrease();
+        } else {
+            refill();
+            rate = Math.min(config.getMaxRate(), rate + config.getAdditiveIncrease());
+        }
+    }
+
+    public synchronized void onThrottled() {
+        decrease();
+    }
+
+    public synchronized double rate() {
+        return rate;
+    }
+
+    public synchronized double unitsPerItem() {
+        return unitsPerItem;
+    }
+
+    private void decrease() {
+        refill();
+        rate = Math.max(config.getMinRate(), rate * config.getDecreaseFactor());
+        tokens = Math.min(tokens, 0.0);
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        tokens = Math.min(capacity(), tokens + (now - lastRefill) / NANOS_PER_SECOND * rate);
+        lastRefill = now;
+    }
+
+    private double capacity() {
+        return rate * config.getBurstSeconds();
+    }
+}
@@ -0,0 +1,96 @@
+package co.cmatts.aws.dynamo;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.joining;
+
+public abstract class ContinuationTokenCodec<V> {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String ENTRY_SEPARATOR = ".";
+    private static final String FIELD_SEPARATOR = "~";
+
+    public String encode(Map<String, V> key) {
+        if (key == null || key.isEmpty()) {
+            return null;
+        }
+
+        return key.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(e -> encodeEntry(e.getKey(), e.getValue()))
+                .collect(joining(ENTRY_SEPARATOR));
+    }
+
+    public Map<String, V> decode(String token) {
+        if (token == null) {
+            return null;
+        }
+
+        try {
+            Map<String, V> key = new HashMap<>();
+            for (String entry : token.split("\\" + ENTRY_SEPARATOR)) {
+                String[] fields = entry.split(FIELD_SEPARATOR, -1);
+                if (fields.length != 3) {
+                    throw new IllegalArgumentException("Invalid continuation token");
+                }
+                key.put(decodeString(fields[1]), decodeValue(fields[0], fields[2]));
+            }
+            return key;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid continuation token", e);
+        }
+    }
+
+    protected abstract String stringOf(V value);
+
+    protected abstract String numberOf(V value);
+
+    protected abstract byte[] bytesOf(V value);
+
+    protected abstract V fromString(String value);
+
+    protected abstract V fromNumber(String value);
+
+    protected abstract V fromBytes(byte[] value);
+
+    private String encodeEntry(String name, V value) {
+        String encodedName = encodeString(name);
+        String s = stringOf(value);
+        if (s != null) {
+            return String.join(FIELD_SEPARATOR, "S", encodedName, encodeString(s));
+        }
+        String n = numberOf(value);
+        if (n != null) {
+            return String.join(FIELD_SEPARATOR, "N", encodedName, encodeString(n));
+        }
+        byte[] b = bytesOf(value);
+        if (b != null) {
+            return String.join(FIELD_SEPARATOR, "B", encodedName, ENCODER.encodeToString(b));
+        }
+        throw new IllegalArgumentException("Unsupported key attribute type for " + name);
+    }
+
+    private V decodeValue(String type, String value) {
+        switch (type) {
+            case "S":
+                return fromString(decodeString(value));
+            case "N":
+                return fromNumber(decodeString(value));
+            case "B":
+                return fromBytes(DECODER.decode(value));
+            default:
+                throw new IllegalArgumentException("Unsupported key attribute type " + type);
+        }
+    }
+
+    private static String encodeString(String value) {
+        return ENCODER.encodeToString(value.getBytes(UTF_8));
+    }
+
+    private static String decodeString(String value) {
+        return new String(DECODER.decode(value), UTF_8);
+    }
+}
@@ -0,0 +1,11 @@
+package co.cmatts.aws.dynamo;
+
+public interface FamilyMember {
+    Integer getId();
+
+    Integer getYearOfBirth();
+
+    Integer getFatherId();
+
+    Integer getMotherId();
+}
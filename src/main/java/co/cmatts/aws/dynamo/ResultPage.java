@@ -0,0 +1,15 @@
+package co.cmatts.aws.dynamo;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class ResultPage<T> {
+    List<T> items;
+    String continuationToken;
+
+    public boolean hasMore() {
+        return continuationToken != null;
+    }
+}
@@ -0,0 +1,57 @@
+package co.cmatts.aws.dynamo;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+
+@Getter
+public class SiblingGroups<P extends FamilyMember> {
+    private static final Comparator<FamilyMember> BY_YEAR_OF_BIRTH = (a, b) -> {
+        int byYear = compareNullsFirst(a.getYearOfBirth(), b.getYearOfBirth());
+        return byYear != 0 ? byYear : compareNullsFirst(a.getId(), b.getId());
+    };
+    private static final Comparator<FamilyMember> BY_MOTHER_THEN_YEAR_OF_BIRTH = (a, b) -> {
+        int byMother = compareNullsFirst(a.getMotherId(), b.getMotherId());
+        return byMother != 0 ? byMother : BY_YEAR_OF_BIRTH.compare(a, b);
+    };
+    private static final Comparator<FamilyMember> BY_FATHER_THEN_YEAR_OF_BIRTH = (a, b) -> {
+        int byFather = compareNullsFirst(a.getFatherId(), b.getFatherId());
+        return byFather != 0 ? byFather : BY_YEAR_OF_BIRTH.compare(a, b);
+    };
+
+    private final List<P> fullSiblings = new ArrayList<>();
+    private final List<P> stepByFather = new ArrayList<>();
+    private final List<P> stepByMother = new ArrayList<>();
+
+    public SiblingGroups(P person, Collection<P> allSiblings) {
+        Integer fatherId = person.getFatherId();
+        Integer motherId = person.getMotherId();
+
+        for (P sibling : allSiblings) {
+            boolean sameFather = Objects.equals(sibling.getFatherId(), fatherId);
+            boolean sameMother = Objects.equals(sibling.getMotherId(), motherId);
+            if (sameFather && sameMother) {
+                fullSiblings.add(sibling);
+            } else if (sameFather) {
+                stepByFather.add(sibling);
+            } else if (sameMother) {
+                stepByMother.add(sibling);
+            }
+        }
+
+        fullSiblings.sort(BY_YEAR_OF_BIRTH);
+        stepByFather.sort(BY_MOTHER_THEN_YEAR_OF_BIRTH);
+        stepByMother.sort(BY_FATHER_THEN_YEAR_OF_BIRTH);
+    }
+
+    private static int compareNullsFirst(Integer a, Integer b) {
+        if (a == null) {
+            return b == null ? 0 : -1;
+        }
+        return b == null ? 1 : Integer.compare(a, b);
+    }
+}
@@ -0,0 +1,27 @@
+package co.cmatts.aws.dynamo;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class TableRateLimiters {
+
+    private final ThrottleConfig config;
+    private final Map<String, AdaptiveRateLimiter> limiters = new ConcurrentHashMap<>();
+
+    public TableRateLimiters(ThrottleConfig config) {
+        this.config = config;
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public AdaptiveRateLimiter forTable(String tableName) {
+        return limiters.computeIfAbsent(tableName, t -> new AdaptiveRateLimiter(config));
+    }
+
+    public Optional<AdaptiveRateLimiter> find(String tableName) {
+        return Optional.ofNullable(limiters.get(tableName));
+    }
+}
@@ -0,0 +1,31 @@
+package co.cmatts.aws.dynamo;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class ThrottleConfig {
+    @Builder.Default
+    boolean enabled = false;
+    @Builder.Default
+    double initialRate = 5.0;
+    @Builder.Default
+    double minRate = 1.0;
+    @Builder.Default
+    double maxRate = 1000.0;
+    @Builder.Default
+    double additiveIncrease = 1.0;
+    @Builder.Default
+    double decreaseFactor = 0.5;
+    @Builder.Default
+    double burstSeconds = 1.0;
+
+    public static ThrottleConfig disabled() {
+        return ThrottleConfig.builder().build();
+    }
+
+    public static ThrottleConfig enabled(double initialRate) {
+        return ThrottleConfig.builder().enabled(true).initialRate(initialRate).build();
+    }
+}
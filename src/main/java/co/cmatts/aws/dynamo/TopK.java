@@ -0,0 +1,31 @@
+package co.cmatts.aws.dynamo;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Stream;
+
+public class TopK {
+
+    private TopK() {
+    }
+
+    public static <T> List<T> topK(Stream<T> items, int limit, Comparator<? super T> comparator) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("A top-K limit must be at least 1");
+        }
+
+        PriorityQueue<T> heap = new PriorityQueue<>(limit + 1, comparator.reversed());
+        items.forEach(item -> {
+            heap.offer(item);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        });
+
+        List<T> result = new ArrayList<>(heap);
+        result.sort(comparator);
+        return result;
+    }
+}
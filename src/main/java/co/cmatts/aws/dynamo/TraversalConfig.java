@@ -0,0 +1,19 @@
+package co.cmatts.aws.dynamo;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class TraversalConfig {
+    @Builder.Default
+    int maxDepth = 10;
+    @Builder.Default
+    int maxFanOut = 100;
+    @Builder.Default
+    int maxConcurrentQueries = 8;
+
+    public static TraversalConfig defaults() {
+        return TraversalConfig.builder().build();
+    }
+}
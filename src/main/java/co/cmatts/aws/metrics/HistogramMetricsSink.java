@@ -0,0 +1,82 @@
+package co.cmatts.aws.metrics;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.stream.Collectors.toList;
+
+public class HistogramMetricsSink implements MetricsSink {
+
+    private final Map<Key, Aggregate> aggregates = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(OperationMetrics metrics) {
+        Key key = new Key(metrics.getOperation(), metrics.getTableName(), metrics.getIndexName());
+        aggregates.computeIfAbsent(key, k -> new Aggregate()).record(metrics);
+    }
+
+    public List<OperationSummary> statistics() {
+        return aggregates.entrySet().stream()
+                .map(e -> e.getValue().summary(e.getKey()))
+                .sorted(Comparator.comparing(OperationSummary::getTableName, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparing(OperationSummary::getOperation)
+                        .thenComparing(OperationSummary::getIndexName, Comparator.nullsFirst(Comparator.naturalOrder())))
+                .collect(toList());
+    }
+
+    public void reset() {
+        aggregates.clear();
+    }
+
+    @Value
+    private static class Key {
+        String operation;
+        String tableName;
+        String indexName;
+    }
+
+    private static class Aggregate {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder items = new LongAdder();
+        private final DoubleAdder readUnits = new DoubleAdder();
+        private final DoubleAdder writeUnits = new DoubleAdder();
+
+        private void record(OperationMetrics metrics) {
+            latency.record(metrics.getLatency() == null ? 0L : metrics.getLatency().toNanos());
+            if (metrics.isFailed()) {
+                failures.increment();
+            }
+            retries.add(metrics.getRetries());
+            items.add(metrics.getItems());
+            readUnits.add(metrics.getConsumedReadUnits());
+            writeUnits.add(metrics.getConsumedWriteUnits());
+        }
+
+        private OperationSummary summary(Key key) {
+            return OperationSummary.builder()
+                    .operation(key.getOperation())
+                    .tableName(key.getTableName())
+                    .indexName(key.getIndexName())
+                    .calls(latency.count())
+                    .failures(failures.sum())
+                    .retries(retries.sum())
+                    .items(items.sum())
+                    .consumedReadUnits(readUnits.sum())
+                    .consumedWriteUnits(writeUnits.sum())
+                    .meanLatency(Duration.ofNanos(Math.round(latency.mean())))
+                    .p50Latency(Duration.ofNanos(latency.percentile(50.0)))
+                    .p99Latency(Duration.ofNanos(latency.percentile(99.0)))
+                    .maxLatency(Duration.ofNanos(latency.max()))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package co.cmatts.aws.metrics;
+
+@FunctionalInterface
+public interface MetricsSink {
+    MetricsSink NONE = metrics -> { };
+
+    void record(OperationMetrics metrics);
+}
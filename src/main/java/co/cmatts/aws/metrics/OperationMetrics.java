@@ -0,0 +1,24 @@
+package co.cmatts.aws.metrics;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+@Builder
+public class OperationMetrics {
+    String operation;
+    String tableName;
+    String indexName;
+    Duration latency;
+    double consumedReadUnits;
+    double consumedWriteUnits;
+    int items;
+    int attempts;
+    boolean failed;
+
+    public int getRetries() {
+        return Math.max(0, attempts - 1);
+    }
+}
@@ -0,0 +1,24 @@
+package co.cmatts.aws.metrics;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+@Builder
+public class OperationSummary {
+    String operation;
+    String tableName;
+    String indexName;
+    long calls;
+    long failures;
+    long retries;
+    long items;
+    double consumedReadUnits;
+    double consumedWriteUnits;
+    Duration meanLatency;
+    Duration p50Latency;
+    Duration p99Latency;
+    Duration maxLatency;
+}
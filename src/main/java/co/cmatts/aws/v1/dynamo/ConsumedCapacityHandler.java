@@ -0,0 +1,66 @@
+package co.cmatts.aws.v1.dynamo;
+
+import co.cmatts.aws.dynamo.AdaptiveRateLimiter;
+import co.cmatts.aws.dynamo.TableRateLimiters;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemRequest;
+import com.amazonaws.services.dynamodbv2.model.BatchWriteItemResult;
+import com.amazonaws.services.dynamodbv2.model.ConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.ProvisionedThroughputExceededException;
+import com.amazonaws.services.dynamodbv2.model.ReturnConsumedCapacity;
+import com.amazonaws.services.dynamodbv2.model.WriteRequest;
+
+import java.util.List;
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.emptyMap;
+import static java.util.stream.Collectors.toMap;
+
+public class ConsumedCapacityHandler extends RequestHandler2 {
+
+    private final TableRateLimiters rateLimiters;
+
+    public ConsumedCapacityHandler(TableRateLimiters rateLimiters) {
+        this.rateLimiters = rateLimiters;
+    }
+
+    @Override
+    public AmazonWebServiceRequest beforeExecution(AmazonWebServiceRequest request) {
+        if (request instanceof BatchWriteItemRequest && ((BatchWriteItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((BatchWriteItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        return request;
+    }
+
+    @Override
+    public void afterResponse(Request<?> request, Response<?> response) {
+        if (!(request.getOriginalRequest() instanceof BatchWriteItemRequest) || !(response.getAwsResponse() instanceof BatchWriteItemResult)) {
+            return;
+        }
+
+        BatchWriteItemRequest batchRequest = (BatchWriteItemRequest) request.getOriginalRequest();
+        BatchWriteItemResult result = (BatchWriteItemResult) response.getAwsResponse();
+        List<ConsumedCapacity> capacity = result.getConsumedCapacity() == null ? emptyList() : result.getConsumedCapacity();
+        Map<String, Double> consumed = capacity.stream()
+                .filter(c -> c.getCapacityUnits() != null)
+                .collect(toMap(ConsumedCapacity::getTableName, ConsumedCapacity::getCapacityUnits, Double::sum));
+        Map<String, List<WriteRequest>> unprocessedItems = result.getUnprocessedItems() == null ? emptyMap() : result.getUnprocessedItems();
+
+        batchRequest.getRequestItems().forEach((tableName, writes) -> rateLimiters.find(tableName).ifPresent(limiter -> {
+            int unprocessed = unprocessedItems.getOrDefault(tableName, emptyList()).size();
+            limiter.onWrite(consumed.getOrDefault(tableName, 0.0), writes.size() - unprocessed, unprocessed);
+        }));
+    }
+
+    @Override
+    public void afterError(Request<?> request, Response<?> response, Exception e) {
+        if (e instanceof ProvisionedThroughputExceededException && request.getOriginalRequest() instanceof BatchWriteItemRequest) {
+            ((BatchWriteItemRequest) request.getOriginalRequest()).getRequestItems().keySet()
+                    .forEach(tableName -> rateLimiters.find(tableName).ifPresent(AdaptiveRateLimiter::onThrottled));
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package co.cmatts.aws.v1.dynamo;
+
+import co.cmatts.aws.dynamo.ContinuationTokenCodec;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+public class ContinuationTokens {
+    private static final ContinuationTokenCodec<AttributeValue> CODEC = new ContinuationTokenCodec<>() {
+        @Override
+        protected String stringOf(AttributeValue value) {
+            return value.getS();
+        }
+
+        @Override
+        protected String numberOf(AttributeValue value) {
+            return value.getN();
+        }
+
+        @Override
+        protected byte[] bytesOf(AttributeValue value) {
+            return value.getB() == null ? null : bytes(value.getB());
+        }
+
+        @Override
+        protected AttributeValue fromString(String value) {
+            return new AttributeValue().withS(value);
+        }
+
+        @Override
+        protected AttributeValue fromNumber(String value) {
+            return new AttributeValue().withN(value);
+        }
+
+        @Override
+        protected AttributeValue fromBytes(byte[] value) {
+            return new AttributeValue().withB(ByteBuffer.wrap(value));
+        }
+    };
+
+    private ContinuationTokens() {
+    }
+
+    public static String encode(Map<String, AttributeValue> key) {
+        return CODEC.encode(key);
+    }
+
+    public static Map<String, AttributeValue> decode(String token) {
+        return CODEC.decode(token);
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        ByteBuffer copy = buffer.duplicate();
+        byte[] bytes = new byte[copy.remaining()];
+        copy.get(bytes);
+        return bytes;
+    }
+}
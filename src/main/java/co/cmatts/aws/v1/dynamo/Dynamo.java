@@ -1,42 +1,120 @@
 package co.cmatts.aws.v1.dynamo;
 
+import co.cmatts.aws.dynamo.TableRateLimiters;
+import co.cmatts.aws.metrics.MetricsSink;
+import com.amazonaws.ClientConfiguration;
+import com.amazonaws.handlers.RequestHandler2;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static co.cmatts.aws.v1.client.Configuration.configureEndPoint;
 
 public class Dynamo {
 
     public static final String TABLE_NAME_PREFIX = "dynamo.example.";
-    private static AmazonDynamoDB client;
-    private static DynamoDBMapper mapper;
+    static final int MAX_CONNECTIONS = 100;
+    static final int CONNECTION_TIMEOUT_MILLIS = 2_000;
+    static final int SOCKET_TIMEOUT_MILLIS = 10_000;
+    static final int REQUEST_TIMEOUT_MILLIS = 5_000;
+    static final int CLIENT_EXECUTION_TIMEOUT_MILLIS = 30_000;
+    static final long CONNECTION_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5L);
 
-    public static AmazonDynamoDB getDynamoClient() {
-        if (client != null) {
-            return client;
-        }
+    private static final DynamoDBMapperConfig.TableNameOverride TABLE_NAME_OVERRIDE =
+            DynamoDBMapperConfig.TableNameOverride.withTableNamePrefix(TABLE_NAME_PREFIX);
+    private static final DynamoDBMapperConfig MAPPER_CONFIG = mapperConfig().build();
+    private static final Map<ConsistentReads, DynamoDBMapperConfig> CONSISTENT_READS_CONFIGS =
+            configsFor(ConsistentReads.class, c -> mapperConfig().withConsistentReads(c).build());
+    private static final Map<PaginationLoadingStrategy, DynamoDBMapperConfig> PAGINATION_CONFIGS =
+            configsFor(PaginationLoadingStrategy.class, p -> mapperConfig().withPaginationLoadingStrategy(p).build());
+
+    private static volatile MetricsSink metricsSink = MetricsSink.NONE;
+
+    private static class Client {
+        private static final AmazonDynamoDB INSTANCE = dynamoClient();
+    }
+
+    private static class Mapper {
+        private static final DynamoDBMapper INSTANCE = new DynamoDBMapper(Client.INSTANCE, MAPPER_CONFIG);
+    }
 
-        AmazonDynamoDBClientBuilder builder = AmazonDynamoDBClientBuilder.standard();
+    private static AmazonDynamoDB dynamoClient(RequestHandler2... handlers) {
+        AmazonDynamoDBClientBuilder builder = AmazonDynamoDBClientBuilder.standard()
+                .withClientConfiguration(clientConfiguration())
+                .withRequestHandlers(Stream.concat(Stream.of(handlers), Stream.of(new MetricsHandler()))
+                        .toArray(RequestHandler2[]::new));
         configureEndPoint(builder);
+        return builder.build();
+    }
 
-        client = builder.build();
-        return client;
+    static ClientConfiguration clientConfiguration() {
+        return new ClientConfiguration()
+                .withMaxConnections(MAX_CONNECTIONS)
+                .withTcpKeepAlive(true)
+                .withConnectionTTL(CONNECTION_TTL_MILLIS)
+                .withConnectionTimeout(CONNECTION_TIMEOUT_MILLIS)
+                .withSocketTimeout(SOCKET_TIMEOUT_MILLIS)
+                .withRequestTimeout(REQUEST_TIMEOUT_MILLIS)
+                .withClientExecutionTimeout(CLIENT_EXECUTION_TIMEOUT_MILLIS);
     }
 
-    public static DynamoDBMapperConfig getDynamoMapperConfig() {
+    private static DynamoDBMapperConfig.Builder mapperConfig() {
         return DynamoDBMapperConfig.builder()
-                .withTableNameOverride(DynamoDBMapperConfig.TableNameOverride.withTableNamePrefix(TABLE_NAME_PREFIX))
-                .build();
+                .withTableNameOverride(TABLE_NAME_OVERRIDE);
     }
 
-    public static DynamoDBMapper getDynamoMapper() {
-        if (mapper != null) {
-            return mapper;
+    private static <E extends Enum<E>> Map<E, DynamoDBMapperConfig> configsFor(Class<E> type, Function<E, DynamoDBMapperConfig> factory) {
+        Map<E, DynamoDBMapperConfig> configs = new EnumMap<>(type);
+        for (E value : type.getEnumConstants()) {
+            configs.put(value, factory.apply(value));
         }
-        mapper = new DynamoDBMapper(getDynamoClient());
-        return mapper;
+        return Collections.unmodifiableMap(configs);
+    }
+
+    public static AmazonDynamoDB getDynamoClient() {
+        return Client.INSTANCE;
+    }
+
+    public static MetricsSink getMetricsSink() {
+        return metricsSink;
+    }
+
+    public static void setMetricsSink(MetricsSink sink) {
+        metricsSink = sink == null ? MetricsSink.NONE : sink;
+    }
+
+    public static DynamoDBMapperConfig getDynamoMapperConfig() {
+        return MAPPER_CONFIG;
+    }
+
+    public static DynamoDBMapperConfig getDynamoMapperConfig(ConsistentReads consistentReads) {
+        return CONSISTENT_READS_CONFIGS.get(consistentReads);
+    }
+
+    public static DynamoDBMapperConfig getDynamoMapperConfig(PaginationLoadingStrategy paginationLoadingStrategy) {
+        return PAGINATION_CONFIGS.get(paginationLoadingStrategy);
+    }
+
+    public static DynamoDBMapper getDynamoMapper() {
+        return Mapper.INSTANCE;
+    }
+
+    public static AmazonDynamoDB newDynamoClient(TableRateLimiters rateLimiters) {
+        return dynamoClient(new ConsumedCapacityHandler(rateLimiters));
+    }
+
+    public static DynamoDBMapper newDynamoMapper(AmazonDynamoDB client) {
+        return new DynamoDBMapper(client, MAPPER_CONFIG);
     }
 
 }
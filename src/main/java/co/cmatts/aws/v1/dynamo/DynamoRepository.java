@@ -1,87 +1,259 @@
 package co.cmatts.aws.v1.dynamo;
 
+import co.cmatts.aws.dynamo.ResultPage;
+import co.cmatts.aws.dynamo.TableRateLimiters;
+import co.cmatts.aws.dynamo.ThrottleConfig;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapper;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBQueryExpression;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBScanExpression;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
+import com.amazonaws.services.dynamodbv2.datamodeling.QueryResultPage;
+import com.amazonaws.services.dynamodbv2.datamodeling.ScanResultPage;
 import com.amazonaws.services.dynamodbv2.datamodeling.TransactionWriteRequest;
 import com.amazonaws.services.dynamodbv2.model.AttributeValue;
 import co.cmatts.aws.v1.dynamo.model.Fact;
 import co.cmatts.aws.v1.dynamo.model.Person;
+import co.cmatts.aws.v1.dynamo.model.PersonWithFacts;
 import co.cmatts.aws.v1.dynamo.model.Siblings;
+import org.apache.commons.collections4.ListUtils;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+import static co.cmatts.aws.dynamo.TopK.topK;
 import static co.cmatts.aws.v1.dynamo.Dynamo.getDynamoMapper;
 import static co.cmatts.aws.v1.dynamo.Dynamo.getDynamoMapperConfig;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
 
-public class DynamoRepository {
+public class DynamoRepository implements AutoCloseable {
+    private static final int BATCH_WRITE_SIZE = 25;
+    private static final Comparator<Person> PEOPLE_BY_NAME = Comparator.comparing(Person::getName);
+    private static final ExecutorService QUERY_EXECUTOR = Executors.newFixedThreadPool(Dynamo.MAX_CONNECTIONS, r -> {
+        Thread thread = new Thread(r, "dynamo-query");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final DynamoRepositoryConfig config;
+    private final TableRateLimiters rateLimiters;
+    private final AmazonDynamoDB throttledClient;
+    private final DynamoDBMapper loadMapper;
+
+    public DynamoRepository() {
+        this(DynamoRepositoryConfig.defaults());
+    }
+
+    public DynamoRepository(ThrottleConfig throttleConfig) {
+        this(DynamoRepositoryConfig.builder().throttleConfig(throttleConfig).build());
+    }
+
+    public DynamoRepository(DynamoRepositoryConfig config) {
+        if (config.getScanSegments() < 1) {
+            throw new IllegalArgumentException("A parallel scan needs at least one segment");
+        }
+        if (config.getPaginationLoadingStrategy() == PaginationLoadingStrategy.ITERATION_ONLY) {
+            throw new IllegalArgumentException("List results cannot use ITERATION_ONLY pagination, use the stream methods instead");
+        }
+        this.config = config;
+        this.rateLimiters = new TableRateLimiters(config.getThrottleConfig());
+        this.throttledClient = rateLimiters.isEnabled() ? Dynamo.newDynamoClient(rateLimiters) : null;
+        this.loadMapper = throttledClient == null ? getDynamoMapper() : Dynamo.newDynamoMapper(throttledClient);
+    }
+
+    @Override
+    public void close() {
+        if (throttledClient != null) {
+            throttledClient.shutdown();
+        }
+    }
+
     public Optional<Person> findPerson(Integer id) {
+        return findPerson(id, ConsistentReads.CONSISTENT);
+    }
+
+    public Optional<Person> findPerson(Integer id, ConsistentReads consistency) {
         if (id == null) {
             return Optional.empty();
         }
 
-        DynamoDBQueryExpression<Person> queryExpression = new DynamoDBQueryExpression<Person>()
-                .withConsistentRead(true)
-                .withKeyConditionExpression("id = :id")
-                .withExpressionAttributeValues(Map.of(
-                        ":id", new AttributeValue().withN(Integer.toString(id))
-                ));
+        return Optional.ofNullable(getDynamoMapper().load(Person.class, id, getDynamoMapperConfig(consistency)));
+    }
 
-        List<Person> results = getDynamoMapper().query(Person.class, queryExpression, getDynamoMapperConfig());
-        return results.stream().findFirst();
+    public List<Person> findPeople(Collection<Integer> ids) {
+        return findPeople(ids, ConsistentReads.EVENTUAL);
+    }
+
+    public List<Person> findPeople(Collection<Integer> ids, ConsistentReads consistency) {
+        return loadPeople(ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(toList()), consistency);
     }
 
     public List<Person> findPersonByFather(Integer id) {
+        return findPersonByFather(id, null);
+    }
+
+    public List<Person> findPersonByMother(Integer id) {
+        return findPersonByMother(id, null);
+    }
+
+    public List<Fact> findFacts(Integer id) {
+        return findFacts(id, null);
+    }
+
+    public Optional<PersonWithFacts> findPersonWithFacts(Integer id) {
         if (id == null) {
-            return emptyList();
+            return Optional.empty();
         }
 
-        DynamoDBQueryExpression<Person> queryExpression = new DynamoDBQueryExpression<Person>()
-                .withConsistentRead(false)
-                .withIndexName("fatherIndex")
-                .withKeyConditionExpression("fatherId = :id")
-                .withExpressionAttributeValues(Map.of(
-                        ":id", new AttributeValue().withN(Integer.toString(id))
-                ));
+        CompletableFuture<List<Fact>> facts =
+                CompletableFuture.supplyAsync(() -> new ArrayList<>(findFacts(id)), QUERY_EXECUTOR);
+        Optional<Person> person = findPerson(id);
+        return person.map(p -> new PersonWithFacts(p, facts.join()));
+    }
 
-        return getDynamoMapper().query(Person.class, queryExpression, getDynamoMapperConfig());
+    public List<PersonWithFacts> findPeopleWithFacts(List<Integer> ids) {
+        List<Integer> distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(toList());
+        Map<Integer, Person> people = new HashMap<>();
+        loadPeople(distinctIds).forEach(p -> people.put(p.getId(), p));
+        List<Integer> foundIds = distinctIds.stream()
+                .filter(people::containsKey)
+                .collect(toList());
+
+        Map<Integer, List<Fact>> facts = new HashMap<>();
+        for (List<Integer> wave : ListUtils.partition(foundIds, config.getTraversalConfig().getMaxConcurrentQueries())) {
+            Map<Integer, CompletableFuture<List<Fact>>> queries = new HashMap<>();
+            wave.forEach(id -> queries.put(id,
+                    CompletableFuture.supplyAsync(() -> new ArrayList<>(findFacts(id)), QUERY_EXECUTOR)));
+            queries.forEach((id, query) -> facts.put(id, query.join()));
+        }
+
+        return foundIds.stream()
+                .map(id -> new PersonWithFacts(people.get(id), facts.get(id)))
+                .collect(toList());
     }
 
-    public List<Person> findPersonByMother(Integer id) {
+    public List<Person> findPersonByFather(Integer id, List<String> attributes) {
+        return queryIndex(Person.class, "fatherIndex", "fatherId", id, attributes);
+    }
+
+    public List<Person> findPersonByMother(Integer id, List<String> attributes) {
+        return queryIndex(Person.class, "motherIndex", "motherId", id, attributes);
+    }
+
+    public List<Fact> findFacts(Integer id, List<String> attributes) {
+        return queryIndex(Fact.class, "personIndex", "personId", id, attributes);
+    }
+
+    public Stream<Person> streamPersonByFather(Integer id) {
+        return streamIndex(Person.class, "fatherIndex", "fatherId", id);
+    }
+
+    public Stream<Person> streamPersonByMother(Integer id) {
+        return streamIndex(Person.class, "motherIndex", "motherId", id);
+    }
+
+    public Stream<Fact> streamFacts(Integer id) {
+        return streamIndex(Fact.class, "personIndex", "personId", id);
+    }
+
+    private <T> Stream<T> streamIndex(Class<T> beanClass, String index, String keyAttribute, Integer id) {
         if (id == null) {
-            return emptyList();
+            return Stream.empty();
         }
 
-        DynamoDBQueryExpression<Person> queryExpression = new DynamoDBQueryExpression<Person>()
-                .withConsistentRead(false)
-                .withIndexName("motherIndex")
-                .withKeyConditionExpression("motherId = :id")
-                .withExpressionAttributeValues(Map.of(
-                        ":id", new AttributeValue().withN(Integer.toString(id))
-                ));
+        return iterate(getDynamoMapper().query(beanClass, indexQuery(index, keyAttribute, id, null),
+                getDynamoMapperConfig(PaginationLoadingStrategy.ITERATION_ONLY)));
+    }
 
-        return getDynamoMapper().query(Person.class, queryExpression, getDynamoMapperConfig());
+    private static <T> Stream<T> iterate(List<T> iterationOnlyList) {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterationOnlyList.iterator(), Spliterator.ORDERED), false);
     }
 
-    public List<Fact> findFacts(Integer id) {
+    private DynamoDBMapperConfig queryConfig() {
+        return getDynamoMapperConfig(config.getPaginationLoadingStrategy());
+    }
+
+    public ResultPage<Person> findPersonByFatherPage(Integer id, int limit, String continuationToken) {
+        return queryIndexPage(Person.class, "fatherIndex", "fatherId", id, limit, continuationToken);
+    }
+
+    public ResultPage<Person> findPersonByMotherPage(Integer id, int limit, String continuationToken) {
+        return queryIndexPage(Person.class, "motherIndex", "motherId", id, limit, continuationToken);
+    }
+
+    public ResultPage<Fact> findFactsPage(Integer id, int limit, String continuationToken) {
+        return queryIndexPage(Fact.class, "personIndex", "personId", id, limit, continuationToken);
+    }
+
+    private <T> List<T> queryIndex(Class<T> beanClass, String index, String keyAttribute, Integer id, List<String> attributes) {
         if (id == null) {
             return emptyList();
         }
 
-        DynamoDBQueryExpression<Fact> queryExpression = new DynamoDBQueryExpression<Fact>()
-                .withIndexName("personIndex")
+        return getDynamoMapper().query(beanClass, indexQuery(index, keyAttribute, id, attributes), queryConfig());
+    }
+
+    private <T> ResultPage<T> queryIndexPage(Class<T> beanClass, String index, String keyAttribute, Integer id,
+                                             int limit, String continuationToken) {
+        checkPageLimit(limit);
+        if (id == null) {
+            return new ResultPage<>(emptyList(), null);
+        }
+
+        DynamoDBQueryExpression<T> queryExpression = DynamoRepository.<T>indexQuery(index, keyAttribute, id, null)
+                .withLimit(limit)
+                .withExclusiveStartKey(ContinuationTokens.decode(continuationToken));
+
+        QueryResultPage<T> page = getDynamoMapper().queryPage(beanClass, queryExpression, getDynamoMapperConfig());
+        return new ResultPage<>(page.getResults(), ContinuationTokens.encode(page.getLastEvaluatedKey()));
+    }
+
+    private static void checkPageLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("A page limit must be at least 1");
+        }
+    }
+
+    private static <T> DynamoDBQueryExpression<T> indexQuery(String index, String keyAttribute, Integer id, List<String> attributes) {
+        List<String> projection = attributes == null ? emptyList() : attributes;
+        Map<String, String> attributeNames = new HashMap<>();
+        attributeNames.put("#key", keyAttribute);
+        for (int i = 0; i < projection.size(); i++) {
+            attributeNames.put("#p" + i, projection.get(i));
+        }
+
+        DynamoDBQueryExpression<T> queryExpression = new DynamoDBQueryExpression<T>()
                 .withConsistentRead(false)
-                .withKeyConditionExpression("personId = :id")
+                .withIndexName(index)
+                .withKeyConditionExpression("#key = :id")
+                .withExpressionAttributeNames(attributeNames)
                 .withExpressionAttributeValues(Map.of(
                         ":id", new AttributeValue().withN(Integer.toString(id))
                 ));
-
-        return getDynamoMapper().query(Fact.class, queryExpression, getDynamoMapperConfig());
+        if (!projection.isEmpty()) {
+            queryExpression.withProjectionExpression(IntStream.range(0, projection.size())
+                    .mapToObj(i -> "#p" + i)
+                    .collect(Collectors.joining(", ")));
+        }
+        return queryExpression;
     }
 
     public Siblings findSiblings(Integer id) {
@@ -91,40 +263,232 @@ public class DynamoRepository {
         }
         Person person = p.get();
 
+        CompletableFuture<List<Person>> byFather =
+                CompletableFuture.supplyAsync(() -> new ArrayList<>(findPersonByFather(person.getFatherId())), QUERY_EXECUTOR);
+        CompletableFuture<List<Person>> byMother =
+                CompletableFuture.supplyAsync(() -> new ArrayList<>(findPersonByMother(person.getMotherId())), QUERY_EXECUTOR);
+
         Set<Person> allSiblings = Stream
-                .concat(findPersonByFather(person.getFatherId()).stream(),
-                        findPersonByMother(person.getMotherId()).stream())
+                .concat(byFather.join().stream(), byMother.join().stream())
                 .collect(Collectors.toSet());
 
         return new Siblings(person, allSiblings, extractParents(allSiblings));
     }
 
     private List<Person> extractParents(Set<Person> allSiblings) {
-        return allSiblings.stream()
+        List<Integer> parentIds = allSiblings.stream()
                 .map(s -> asList(s.getFatherId(), s.getMotherId()))
                 .flatMap(Collection::stream)
                 .filter(Objects::nonNull)
                 .distinct()
-                .map(this::findPerson)
-                .map(Optional::get)
+                .collect(toList());
+
+        return loadPeople(parentIds);
+    }
+
+    private List<Person> loadPeople(List<Integer> ids) {
+        return loadPeople(ids, ConsistentReads.EVENTUAL);
+    }
+
+    private List<Person> loadPeople(List<Integer> ids, ConsistentReads consistency) {
+        if (ids.isEmpty()) {
+            return emptyList();
+        }
+
+        List<Object> keys = ids.stream()
+                .map(id -> Person.builder().id(id).build())
+                .collect(toList());
+
+        return getDynamoMapper().batchLoad(keys, getDynamoMapperConfig(consistency))
+                .values()
+                .stream()
+                .flatMap(List::stream)
+                .map(Person.class::cast)
                 .sorted(Comparator.comparing(Person::getId))
                 .collect(toList());
     }
 
+    public List<List<Person>> findAncestors(Integer id, int depth) {
+        checkDepth(depth);
+        Optional<Person> person = findPerson(id);
+        if (person.isEmpty()) {
+            return emptyList();
+        }
+
+        Set<Integer> visited = new HashSet<>(List.of(id));
+        List<List<Person>> generations = new ArrayList<>();
+        List<Person> generation = List.of(person.get());
+        for (int level = 0; level < depth; level++) {
+            List<Integer> parentIds = unvisited(generation.stream()
+                    .flatMap(p -> Stream.of(p.getFatherId(), p.getMotherId())), visited);
+            generation = loadPeople(parentIds);
+            if (generation.isEmpty()) {
+                break;
+            }
+            generations.add(generation);
+        }
+        return generations;
+    }
+
+    public List<List<Person>> findDescendants(Integer id, int depth) {
+        checkDepth(depth);
+        if (id == null) {
+            return emptyList();
+        }
+
+        Set<Integer> visited = new HashSet<>(List.of(id));
+        List<List<Person>> generations = new ArrayList<>();
+        List<Integer> parentIds = List.of(id);
+        for (int level = 0; level < depth && !parentIds.isEmpty(); level++) {
+            Map<Integer, Person> children = new HashMap<>();
+            findChildren(parentIds).forEach(child -> children.putIfAbsent(child.getId(), child));
+            parentIds = unvisited(children.keySet().stream().sorted(), visited);
+            if (parentIds.isEmpty()) {
+                break;
+            }
+            generations.add(parentIds.stream().map(children::get).collect(toList()));
+        }
+        return generations;
+    }
+
+    private List<Person> findChildren(List<Integer> parentIds) {
+        List<Person> children = new ArrayList<>();
+        for (List<Integer> wave : ListUtils.partition(parentIds, config.getTraversalConfig().getMaxConcurrentQueries())) {
+            List<CompletableFuture<List<Person>>> queries = wave.stream()
+                    .flatMap(parentId -> Stream.of(
+                            CompletableFuture.supplyAsync(() -> new ArrayList<>(findPersonByFather(parentId)), QUERY_EXECUTOR),
+                            CompletableFuture.supplyAsync(() -> new ArrayList<>(findPersonByMother(parentId)), QUERY_EXECUTOR)))
+                    .collect(toList());
+            queries.forEach(query -> children.addAll(query.join()));
+        }
+        return children;
+    }
+
+    private List<Integer> unvisited(Stream<Integer> ids, Set<Integer> visited) {
+        List<Integer> next = new ArrayList<>();
+        Iterator<Integer> candidates = ids.filter(Objects::nonNull).iterator();
+        while (candidates.hasNext() && next.size() < config.getTraversalConfig().getMaxFanOut()) {
+            Integer id = candidates.next();
+            if (visited.add(id)) {
+                next.add(id);
+            }
+        }
+        return next;
+    }
+
+    private void checkDepth(int depth) {
+        if (depth < 1 || depth > config.getTraversalConfig().getMaxDepth()) {
+            throw new IllegalArgumentException("A traversal depth must be between 1 and " + config.getTraversalConfig().getMaxDepth());
+        }
+    }
+
     public List<Person> findPeople() {
         DynamoDBScanExpression scanExpression = new DynamoDBScanExpression();
 
         return getDynamoMapper().scan(Person.class, scanExpression, getDynamoMapperConfig())
                 .stream()
-                .sorted(Comparator.comparing(Person::getName))
+                .sorted(PEOPLE_BY_NAME)
                 .collect(toList());
     }
 
+    public ResultPage<Person> findPeopleByName(int limit, String continuationToken) {
+        checkPageLimit(limit);
+        DynamoDBQueryExpression<Person> queryExpression = nameQuery()
+                .withLimit(limit)
+                .withExclusiveStartKey(ContinuationTokens.decode(continuationToken));
+
+        QueryResultPage<Person> page = getDynamoMapper().queryPage(Person.class, queryExpression, getDynamoMapperConfig());
+        return new ResultPage<>(page.getResults(), ContinuationTokens.encode(page.getLastEvaluatedKey()));
+    }
+
+    private static DynamoDBQueryExpression<Person> nameQuery() {
+        return new DynamoDBQueryExpression<Person>()
+                .withConsistentRead(false)
+                .withIndexName("nameIndex")
+                .withKeyConditionExpression("entityType = :entityType")
+                .withExpressionAttributeValues(Map.of(
+                        ":entityType", new AttributeValue().withS(Person.ENTITY_TYPE)
+                ));
+    }
+
+    public ResultPage<Person> findPeoplePage(int limit, String continuationToken) {
+        checkPageLimit(limit);
+        DynamoDBScanExpression scanExpression = new DynamoDBScanExpression()
+                .withConsistentRead(true)
+                .withLimit(limit)
+                .withExclusiveStartKey(ContinuationTokens.decode(continuationToken));
+
+        ScanResultPage<Person> page = getDynamoMapper().scanPage(Person.class, scanExpression, getDynamoMapperConfig());
+        return new ResultPage<>(page.getResults(), ContinuationTokens.encode(page.getLastEvaluatedKey()));
+    }
+
+    public List<Person> findPeople(int totalSegments) {
+        try (Stream<Person> people = streamPeople(totalSegments)) {
+            return people.sorted(PEOPLE_BY_NAME).collect(toList());
+        }
+    }
+
+    public List<Person> findPeople(int totalSegments, int limit) {
+        try (Stream<Person> people = streamPeople(totalSegments)) {
+            return topK(people, limit, PEOPLE_BY_NAME);
+        }
+    }
+
+    public Stream<Person> streamPeople() {
+        return streamPeople(config.getScanSegments());
+    }
+
+    public Stream<Person> streamPeople(int totalSegments) {
+        if (totalSegments < 1) {
+            throw new IllegalArgumentException("A parallel scan needs at least one segment");
+        }
+
+        DynamoDBScanExpression scanExpression = new DynamoDBScanExpression();
+        return iterate(getDynamoMapper().parallelScan(Person.class, scanExpression, totalSegments,
+                getDynamoMapperConfig(PaginationLoadingStrategy.ITERATION_ONLY)));
+    }
+
     public void load(List<Person> peopleDataList, List<Fact> factDataList) {
-        DynamoDBMapper mapper = Dynamo.getDynamoMapper();
         List<Object> allData = Stream.concat(peopleDataList.stream(), factDataList.stream())
                 .collect(toList());
-        mapper.batchWrite(allData, emptyList(), Dynamo.getDynamoMapperConfig());
+        if (!rateLimiters.isEnabled()) {
+            loadMapper.batchWrite(allData, emptyList(), Dynamo.getDynamoMapperConfig());
+            return;
+        }
+
+        for (List<Object> batch : ListUtils.partition(allData, BATCH_WRITE_SIZE)) {
+            throttle(batch);
+            List<DynamoDBMapper.FailedBatch> failed = loadMapper.batchWrite(batch, emptyList(), Dynamo.getDynamoMapperConfig());
+            if (!failed.isEmpty()) {
+                throw new IllegalStateException("DynamoDb bulk load failed", failed.get(0).getException());
+            }
+        }
+    }
+
+    private void throttle(List<Object> batch) {
+        long delay = batch.stream()
+                .collect(Collectors.groupingBy(Object::getClass, Collectors.counting()))
+                .entrySet()
+                .stream()
+                .mapToLong(e -> rateLimiters
+                        .forTable(tableName(e.getKey()))
+                        .reserve(e.getValue().intValue()))
+                .max()
+                .orElse(0L);
+        if (delay == 0L) {
+            return;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("DynamoDb bulk load was interrupted", e);
+        }
+    }
+
+    private static String tableName(Class<?> beanClass) {
+        return Dynamo.TABLE_NAME_PREFIX + beanClass.getAnnotation(DynamoDBTable.class).tableName();
     }
 
     public void updateEntities(List<Object> entities) {
@@ -0,0 +1,24 @@
+package co.cmatts.aws.v1.dynamo;
+
+import co.cmatts.aws.dynamo.ThrottleConfig;
+import co.cmatts.aws.dynamo.TraversalConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class DynamoRepositoryConfig {
+    @Builder.Default
+    ThrottleConfig throttleConfig = ThrottleConfig.disabled();
+    @Builder.Default
+    TraversalConfig traversalConfig = TraversalConfig.defaults();
+    @Builder.Default
+    int scanSegments = 4;
+    @Builder.Default
+    PaginationLoadingStrategy paginationLoadingStrategy = PaginationLoadingStrategy.LAZY_LOADING;
+
+    public static DynamoRepositoryConfig defaults() {
+        return DynamoRepositoryConfig.builder().build();
+    }
+}
@@ -0,0 +1,254 @@
+package co.cmatts.aws.v1.dynamo;
+
+import co.cmatts.aws.metrics.MetricsSink;
+import co.cmatts.aws.metrics.OperationMetrics;
+import com.amazonaws.AmazonWebServiceRequest;
+import com.amazonaws.Request;
+import com.amazonaws.Response;
+import com.amazonaws.handlers.HandlerBeforeAttemptContext;
+import com.amazonaws.handlers.HandlerContextKey;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.services.dynamodbv2.model.*;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.joining;
+
+public class MetricsHandler extends RequestHandler2 {
+
+    private static final HandlerContextKey<Long> START = new HandlerContextKey<>("MetricsStart");
+    private static final HandlerContextKey<AtomicInteger> ATTEMPTS = new HandlerContextKey<>("MetricsAttempts");
+
+    @Override
+    public AmazonWebServiceRequest beforeExecution(AmazonWebServiceRequest request) {
+        if (Dynamo.getMetricsSink() == MetricsSink.NONE) {
+            return request;
+        }
+
+        if (request instanceof GetItemRequest && ((GetItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((GetItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        if (request instanceof QueryRequest && ((QueryRequest) request).getReturnConsumedCapacity() == null) {
+            ((QueryRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        if (request instanceof ScanRequest && ((ScanRequest) request).getReturnConsumedCapacity() == null) {
+            ((ScanRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        if (request instanceof BatchGetItemRequest && ((BatchGetItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((BatchGetItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        if (request instanceof BatchWriteItemRequest && ((BatchWriteItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((BatchWriteItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        if (request instanceof TransactWriteItemsRequest && ((TransactWriteItemsRequest) request).getReturnConsumedCapacity() == null) {
+            ((TransactWriteItemsRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        if (request instanceof PutItemRequest && ((PutItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((PutItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        if (request instanceof UpdateItemRequest && ((UpdateItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((UpdateItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        if (request instanceof DeleteItemRequest && ((DeleteItemRequest) request).getReturnConsumedCapacity() == null) {
+            ((DeleteItemRequest) request).setReturnConsumedCapacity(ReturnConsumedCapacity.TOTAL);
+        }
+        return request;
+    }
+
+    @Override
+    public void beforeRequest(Request<?> request) {
+        request.addHandlerContext(START, System.nanoTime());
+        request.addHandlerContext(ATTEMPTS, new AtomicInteger());
+    }
+
+    @Override
+    public void beforeAttempt(HandlerBeforeAttemptContext context) {
+        AtomicInteger attempts = context.getRequest().getHandlerContext(ATTEMPTS);
+        if (attempts != null) {
+            attempts.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void afterResponse(Request<?> request, Response<?> response) {
+        publish(request, response.getAwsResponse(), false);
+    }
+
+    @Override
+    public void afterError(Request<?> request, Response<?> response, Exception e) {
+        publish(request, null, true);
+    }
+
+    private static void publish(Request<?> request, Object result, boolean failed) {
+        MetricsSink sink = Dynamo.getMetricsSink();
+        Long start = request.getHandlerContext(START);
+        if (sink == MetricsSink.NONE || start == null) {
+            return;
+        }
+
+        AmazonWebServiceRequest original = request.getOriginalRequest();
+        double consumed = consumedCapacity(result).stream()
+                .map(ConsumedCapacity::getCapacityUnits)
+                .filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue)
+                .sum();
+        boolean read = isRead(original);
+
+        sink.record(OperationMetrics.builder()
+                .operation(request.getHandlerContext(HandlerContextKey.OPERATION_NAME))
+                .tableName(tableName(original))
+                .indexName(indexName(original))
+                .latency(Duration.ofNanos(System.nanoTime() - start))
+                .consumedReadUnits(read ? consumed : 0.0)
+                .consumedWriteUnits(read ? 0.0 : consumed)
+                .items(failed ? 0 : items(original, result))
+                .attempts(Math.max(1, request.getHandlerContext(ATTEMPTS).get()))
+                .failed(failed)
+                .build());
+    }
+
+    private static boolean isRead(AmazonWebServiceRequest request) {
+        return request instanceof GetItemRequest
+                || request instanceof QueryRequest
+                || request instanceof ScanRequest
+                || request instanceof BatchGetItemRequest
+                || request instanceof TransactGetItemsRequest;
+    }
+
+    private static String tableName(AmazonWebServiceRequest request) {
+        if (request instanceof GetItemRequest) {
+            return ((GetItemRequest) request).getTableName();
+        }
+        if (request instanceof QueryRequest) {
+            return ((QueryRequest) request).getTableName();
+        }
+        if (request instanceof ScanRequest) {
+            return ((ScanRequest) request).getTableName();
+        }
+        if (request instanceof PutItemRequest) {
+            return ((PutItemRequest) request).getTableName();
+        }
+        if (request instanceof UpdateItemRequest) {
+            return ((UpdateItemRequest) request).getTableName();
+        }
+        if (request instanceof DeleteItemRequest) {
+            return ((DeleteItemRequest) request).getTableName();
+        }
+        if (request instanceof BatchGetItemRequest) {
+            return joined(((BatchGetItemRequest) request).getRequestItems().keySet().stream());
+        }
+        if (request instanceof BatchWriteItemRequest) {
+            return joined(((BatchWriteItemRequest) request).getRequestItems().keySet().stream());
+        }
+        if (request instanceof TransactWriteItemsRequest) {
+            return joined(((TransactWriteItemsRequest) request).getTransactItems().stream()
+                    .map(MetricsHandler::tableName));
+        }
+        return null;
+    }
+
+    private static String tableName(TransactWriteItem item) {
+        if (item.getPut() != null) {
+            return item.getPut().getTableName();
+        }
+        if (item.getUpdate() != null) {
+            return item.getUpdate().getTableName();
+        }
+        if (item.getDelete() != null) {
+            return item.getDelete().getTableName();
+        }
+        return item.getConditionCheck() == null ? null : item.getConditionCheck().getTableName();
+    }
+
+    private static String joined(Stream<String> tableNames) {
+        return tableNames.filter(Objects::nonNull).distinct().sorted().collect(joining(","));
+    }
+
+    private static String indexName(AmazonWebServiceRequest request) {
+        if (request instanceof QueryRequest) {
+            return ((QueryRequest) request).getIndexName();
+        }
+        if (request instanceof ScanRequest) {
+            return ((ScanRequest) request).getIndexName();
+        }
+        return null;
+    }
+
+    private static List<ConsumedCapacity> consumedCapacity(Object result) {
+        if (result instanceof GetItemResult) {
+            return single(((GetItemResult) result).getConsumedCapacity());
+        }
+        if (result instanceof QueryResult) {
+            return single(((QueryResult) result).getConsumedCapacity());
+        }
+        if (result instanceof ScanResult) {
+            return single(((ScanResult) result).getConsumedCapacity());
+        }
+        if (result instanceof PutItemResult) {
+            return single(((PutItemResult) result).getConsumedCapacity());
+        }
+        if (result instanceof UpdateItemResult) {
+            return single(((UpdateItemResult) result).getConsumedCapacity());
+        }
+        if (result instanceof DeleteItemResult) {
+            return single(((DeleteItemResult) result).getConsumedCapacity());
+        }
+        if (result instanceof BatchGetItemResult) {
+            return orEmpty(((BatchGetItemResult) result).getConsumedCapacity());
+        }
+        if (result instanceof BatchWriteItemResult) {
+            return orEmpty(((BatchWriteItemResult) result).getConsumedCapacity());
+        }
+        if (result instanceof TransactWriteItemsResult) {
+            return orEmpty(((TransactWriteItemsResult) result).getConsumedCapacity());
+        }
+        return emptyList();
+    }
+
+    private static List<ConsumedCapacity> single(ConsumedCapacity capacity) {
+        return capacity == null ? emptyList() : List.of(capacity);
+    }
+
+    private static <T> List<T> orEmpty(List<T> items) {
+        return items == null ? emptyList() : items;
+    }
+
+    private static int items(AmazonWebServiceRequest request, Object result) {
+        if (result instanceof QueryResult) {
+            return ((QueryResult) result).getCount();
+        }
+        if (result instanceof ScanResult) {
+            return ((ScanResult) result).getCount();
+        }
+        if (result instanceof GetItemResult) {
+            return ((GetItemResult) result).getItem() == null ? 0 : 1;
+        }
+        if (result instanceof BatchGetItemResult) {
+            Map<String, List<Map<String, AttributeValue>>> responses = ((BatchGetItemResult) result).getResponses();
+            return responses == null ? 0 : count(responses.values());
+        }
+        if (result instanceof BatchWriteItemResult && request instanceof BatchWriteItemRequest) {
+            Map<String, List<WriteRequest>> unprocessed = ((BatchWriteItemResult) result).getUnprocessedItems();
+            return count(((BatchWriteItemRequest) request).getRequestItems().values())
+                    - (unprocessed == null ? 0 : count(unprocessed.values()));
+        }
+        if (request instanceof TransactWriteItemsRequest) {
+            return ((TransactWriteItemsRequest) request).getTransactItems().size();
+        }
+        if (request instanceof PutItemRequest || request instanceof UpdateItemRequest || request instanceof DeleteItemRequest) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private static int count(Collection<? extends List<?>> lists) {
+        return lists.stream().mapToInt(List::size).sum();
+    }
+}
@@ -6,6 +6,8 @@ import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBVersionAttribute;
 import lombok.*;
 
+import java.util.List;
+
 @Data
 @Builder
 @EqualsAndHashCode(of = "id")
@@ -13,6 +15,8 @@ import lombok.*;
 @AllArgsConstructor
 @DynamoDBTable(tableName = "facts")
 public class Fact {
+    public static final List<String> SUMMARY = List.of("id", "personId", "year");
+
     @DynamoDBHashKey
     private Integer id;
     @DynamoDBIndexHashKey(globalSecondaryIndexName = "personIndex")
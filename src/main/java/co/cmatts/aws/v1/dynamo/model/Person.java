@@ -1,20 +1,28 @@
 package co.cmatts.aws.v1.dynamo.model;
 
+import co.cmatts.aws.dynamo.FamilyMember;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBHashKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexHashKey;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBIndexRangeKey;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBTable;
 import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBVersionAttribute;
 import lombok.*;
 
+import java.util.List;
+
 @Data
 @Builder
 @EqualsAndHashCode(of = "id")
 @NoArgsConstructor
 @AllArgsConstructor
 @DynamoDBTable(tableName = "people")
-public class Person {
+public class Person implements FamilyMember {
+    public static final String ENTITY_TYPE = "PERSON";
+    public static final List<String> SUMMARY = List.of("id", "name", "yearOfBirth", "fatherId", "motherId");
+
     @DynamoDBHashKey
     private Integer id;
+    @DynamoDBIndexRangeKey(globalSecondaryIndexName = "nameIndex")
     private String name;
     private Integer yearOfBirth;
     private Integer yearOfDeath;
@@ -24,4 +32,12 @@ public class Person {
     private Integer motherId;
     @DynamoDBVersionAttribute
     private Long version;
+
+    @DynamoDBIndexHashKey(globalSecondaryIndexName = "nameIndex")
+    public String getEntityType() {
+        return ENTITY_TYPE;
+    }
+
+    public void setEntityType(String entityType) {
+    }
 }
@@ -0,0 +1,17 @@
+package co.cmatts.aws.v1.dynamo.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PersonWithFacts {
+    private Person person;
+    private List<Fact> facts;
+}
@@ -0,0 +1,507 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.dynamo.ResultPage;
+import co.cmatts.aws.dynamo.TableRateLimiters;
+import co.cmatts.aws.v2.dynamo.model.DynamoDbMappedBean;
+import co.cmatts.aws.v2.dynamo.model.Fact;
+import co.cmatts.aws.v2.dynamo.model.Person;
+import co.cmatts.aws.v2.dynamo.model.PersonWithFacts;
+import co.cmatts.aws.v2.dynamo.model.Siblings;
+import org.apache.commons.collections4.ListUtils;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncIndex;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.*;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static co.cmatts.aws.v2.dynamo.Dynamo.*;
+import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.stream.Collectors.toList;
+import static software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional.keyEqualTo;
+
+public class AsyncDynamoRepository implements AutoCloseable {
+
+    static final String FATHER_INDEX = "fatherIndex";
+    static final String MOTHER_INDEX = "motherIndex";
+    static final String PERSON_INDEX = "personIndex";
+    static final String NAME_INDEX = "nameIndex";
+    static final Comparator<Person> PEOPLE_BY_NAME = Comparator.comparing(Person::getName);
+    private static final int BATCH_GET_SIZE = 100;
+
+    private final DynamoRepositoryConfig config;
+    private final SubscriberConfig subscriberConfig;
+    private final EntityCache<Integer, Person> personCache;
+    private final TableRateLimiters rateLimiters;
+    private final DynamoDbAsyncClient throttledClient;
+    private final DynamoDbEnhancedAsyncClient bulkLoadClient;
+    private final SingleFlight<LookupKey> lookups = new SingleFlight<>();
+
+    public AsyncDynamoRepository() {
+        this(DynamoRepositoryConfig.defaults());
+    }
+
+    public AsyncDynamoRepository(DynamoRepositoryConfig config) {
+        this.config = config;
+        this.subscriberConfig = config.getSubscriberConfig();
+        this.personCache = new EntityCache<>(config.getPersonCacheConfig(), Person::copy);
+        this.rateLimiters = new TableRateLimiters(config.getBulkLoadConfig().getThrottleConfig());
+        this.throttledClient = rateLimiters.isEnabled() ? newDynamoDbClient(rateLimiters) : null;
+        this.bulkLoadClient = throttledClient == null
+                ? getEnhancedUnversionedDynamoClient()
+                : newEnhancedUnversionedDynamoClient(throttledClient);
+    }
+
+    @Override
+    public void close() {
+        if (throttledClient != null) {
+            closeDynamoClient(bulkLoadClient, throttledClient);
+        }
+    }
+
+    public CompletableFuture<Optional<Person>> findPerson(Integer id) {
+        if (id == null) {
+            return completedFuture(Optional.empty());
+        }
+
+        Optional<Person> cached = personCache.get(id);
+        if (cached.isPresent()) {
+            return completedFuture(cached);
+        }
+
+        return getPerson(id).thenApply(p -> {
+            Optional<Person> person = Optional.ofNullable(p);
+            person.ifPresent(found -> personCache.put(id, found));
+            return person;
+        });
+    }
+
+    private CompletableFuture<Person> getPerson(Integer id) {
+        DynamoDbAsyncTable<Person> table = getDynamoTable(Person.class);
+        Key idKey = Key.builder().partitionValue(id).build();
+
+        return coalesce(new LookupKey(table.tableName(), null, id),
+                () -> table.getItem(r -> r.key(idKey)),
+                p -> p == null ? null : p.copy());
+    }
+
+    private <V> CompletableFuture<V> coalesce(LookupKey key, Supplier<CompletableFuture<V>> lookup, UnaryOperator<V> copier) {
+        if (!config.isCoalesceLookups()) {
+            return lookup.get();
+        }
+        return lookups.execute(key, lookup, copier);
+    }
+
+    private static <T extends DynamoDbMappedBean> List<T> copyAll(List<T> entities) {
+        return entities.stream().map(e -> (T) e.copy()).collect(toList());
+    }
+
+    public CacheStatistics personCacheStatistics() {
+        return personCache.statistics();
+    }
+
+    public void personChanged(ChangeEvent<Person> event) {
+        invalidateCached(event.item());
+    }
+
+    public CompletableFuture<List<Person>> findPersonByFather(Integer id) {
+        return findEntitiesByIndex(id, Person.class, FATHER_INDEX);
+    }
+
+    public CompletableFuture<List<Person>> findPersonByMother(Integer id) {
+        return findEntitiesByIndex(id, Person.class, MOTHER_INDEX);
+    }
+
+    public CompletableFuture<List<Fact>> findFacts(Integer id) {
+        return findEntitiesByIndex(id, Fact.class, PERSON_INDEX);
+    }
+
+    public CompletableFuture<List<Person>> findPersonByFather(Integer id, List<String> attributes) {
+        return findProjectedEntitiesByIndex(id, Person.class, FATHER_INDEX, attributes);
+    }
+
+    public CompletableFuture<List<Person>> findPersonByMother(Integer id, List<String> attributes) {
+        return findProjectedEntitiesByIndex(id, Person.class, MOTHER_INDEX, attributes);
+    }
+
+    public CompletableFuture<List<Fact>> findFacts(Integer id, List<String> attributes) {
+        return findProjectedEntitiesByIndex(id, Fact.class, PERSON_INDEX, attributes);
+    }
+
+    public CompletableFuture<Optional<PersonWithFacts>> findPersonWithFacts(Integer id) {
+        return findPerson(id).thenCombine(findFacts(id), (person, facts) -> person
+                .map(p -> new PersonWithFacts(p, facts)));
+    }
+
+    public CompletableFuture<List<PersonWithFacts>> findPeopleWithFacts(List<Integer> ids) {
+        List<Integer> distinctIds = ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(toList());
+
+        return findPeopleById(distinctIds).thenCompose(found -> {
+            Map<Integer, Person> byId = new HashMap<>();
+            found.forEach(p -> byId.put(p.getId(), p));
+            List<Integer> foundIds = distinctIds.stream()
+                    .filter(byId::containsKey)
+                    .collect(toList());
+
+            return findFactsOfAll(foundIds).thenApply(facts -> foundIds.stream()
+                    .map(id -> new PersonWithFacts(byId.get(id), facts.get(id)))
+                    .collect(toList()));
+        });
+    }
+
+    private CompletableFuture<Map<Integer, List<Fact>>> findFactsOfAll(List<Integer> ids) {
+        Iterator<Integer> pending = ids.iterator();
+        Map<Integer, List<Fact>> facts = new ConcurrentHashMap<>();
+
+        CompletableFuture<?>[] lanes = IntStream.range(0, Math.min(config.getTraversalConfig().getMaxConcurrentQueries(), ids.size()))
+                .mapToObj(lane -> findFactsOfRemaining(pending, facts))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(lanes).thenApply(v -> facts);
+    }
+
+    private CompletableFuture<Void> findFactsOfRemaining(Iterator<Integer> pending, Map<Integer, List<Fact>> facts) {
+        Integer id;
+        synchronized (pending) {
+            if (!pending.hasNext()) {
+                return completedFuture(null);
+            }
+            id = pending.next();
+        }
+        return findFacts(id)
+                .thenCompose(found -> {
+                    facts.put(id, found);
+                    return findFactsOfRemaining(pending, facts);
+                });
+    }
+
+    public CompletableFuture<ResultPage<Person>> findPersonByFatherPage(Integer id, int limit, String continuationToken) {
+        return findEntityPageByIndex(id, Person.class, FATHER_INDEX, limit, continuationToken);
+    }
+
+    public CompletableFuture<ResultPage<Person>> findPersonByMotherPage(Integer id, int limit, String continuationToken) {
+        return findEntityPageByIndex(id, Person.class, MOTHER_INDEX, limit, continuationToken);
+    }
+
+    public CompletableFuture<ResultPage<Fact>> findFactsPage(Integer id, int limit, String continuationToken) {
+        return findEntityPageByIndex(id, Fact.class, PERSON_INDEX, limit, continuationToken);
+    }
+
+    public CompletableFuture<ResultPage<Person>> findPeoplePage(int limit, String continuationToken) {
+        checkPageLimit(limit);
+        ScanEnhancedRequest request = ScanEnhancedRequest.builder()
+                .consistentRead(true)
+                .limit(limit)
+                .exclusiveStartKey(ContinuationTokens.decode(continuationToken))
+                .build();
+
+        return firstPage(getDynamoTable(Person.class).scan(request));
+    }
+
+    public SdkPublisher<Person> publishPersonByFather(Integer id) {
+        return publishEntitiesByIndex(id, Person.class, FATHER_INDEX);
+    }
+
+    public SdkPublisher<Person> publishPersonByMother(Integer id) {
+        return publishEntitiesByIndex(id, Person.class, MOTHER_INDEX);
+    }
+
+    public SdkPublisher<Fact> publishFacts(Integer id) {
+        return publishEntitiesByIndex(id, Fact.class, PERSON_INDEX);
+    }
+
+    public SdkPublisher<Person> publishPeople() {
+        return scanPages().flatMapIterable(Page::items);
+    }
+
+    private <T extends DynamoDbMappedBean> CompletableFuture<List<T>> findEntitiesByIndex(Integer id, Class<T> beanClass, String index) {
+        if (id == null) {
+            return completedFuture(emptyList());
+        }
+
+        DynamoDbAsyncTable<T> table = getDynamoTable(beanClass);
+        return coalesce(new LookupKey(table.tableName(), index, id),
+                () -> collectAsync(queryIndex(id, beanClass, index)),
+                AsyncDynamoRepository::copyAll);
+    }
+
+    private <T extends DynamoDbMappedBean> CompletableFuture<List<T>> findProjectedEntitiesByIndex(Integer id, Class<T> beanClass,
+                                                                                                  String index, List<String> attributes) {
+        if (id == null) {
+            return completedFuture(emptyList());
+        }
+        return collectAsync(queryIndex(id, beanClass, index, attributes));
+    }
+
+    private <T extends DynamoDbMappedBean> CompletableFuture<ResultPage<T>> findEntityPageByIndex(Integer id, Class<T> beanClass, String index,
+                                                                                                 int limit, String continuationToken) {
+        checkPageLimit(limit);
+        if (id == null) {
+            return completedFuture(new ResultPage<>(emptyList(), null));
+        }
+
+        QueryEnhancedRequest request = QueryEnhancedRequest.builder()
+                .consistentRead(false)
+                .queryConditional(keyEqualTo(k -> k.partitionValue(id)))
+                .limit(limit)
+                .exclusiveStartKey(ContinuationTokens.decode(continuationToken))
+                .build();
+
+        return firstPage(getDynamoTable(beanClass).index(index).query(request));
+    }
+
+    private static void checkPageLimit(int limit) {
+        if (limit < 1) {
+            throw new IllegalArgumentException("A page limit must be at least 1");
+        }
+    }
+
+    private <T> CompletableFuture<ResultPage<T>> firstPage(SdkPublisher<Page<T>> publisher) {
+        CollectingSubscriber<Page<T>> subscriber = new CollectingSubscriber<>(subscriberConfig);
+        publisher.limit(1).subscribe(subscriber);
+
+        return subscriber.result().thenApply(pages -> pages.stream()
+                .findFirst()
+                .map(page -> new ResultPage<>(page.items(), ContinuationTokens.encode(page.lastEvaluatedKey())))
+                .orElseGet(() -> new ResultPage<>(emptyList(), null)));
+    }
+
+    private <T extends DynamoDbMappedBean> SdkPublisher<T> publishEntitiesByIndex(Integer id, Class<T> beanClass, String index) {
+        if (id == null) {
+            return emptyPublisher();
+        }
+        return queryIndex(id, beanClass, index).flatMapIterable(Page::items);
+    }
+
+    private static <T> SdkPublisher<T> emptyPublisher() {
+        return subscriber -> {
+            subscriber.onSubscribe(new Subscription() {
+                @Override
+                public void request(long n) {
+                }
+
+                @Override
+                public void cancel() {
+                }
+            });
+            subscriber.onComplete();
+        };
+    }
+
+    <T extends DynamoDbMappedBean> SdkPublisher<Page<T>> queryIndex(Integer id, Class<T> beanClass, String index) {
+        return queryIndex(id, beanClass, index, emptyList());
+    }
+
+    <T extends DynamoDbMappedBean> SdkPublisher<Page<T>> queryIndex(Integer id, Class<T> beanClass, String index, List<String> attributes) {
+        DynamoDbAsyncIndex<T> parentIndex = getDynamoTable(beanClass).index(index);
+
+        QueryEnhancedRequest.Builder request = QueryEnhancedRequest.builder()
+                .consistentRead(false)
+                .queryConditional(keyEqualTo(k -> k.partitionValue(id)));
+        if (!attributes.isEmpty()) {
+            request.attributesToProject(attributes);
+        }
+        return parentIndex.query(request.build());
+    }
+
+    PagePublisher<Person> scanPages() {
+        ScanEnhancedRequest request = ScanEnhancedRequest.builder()
+                .consistentRead(true)
+                .build();
+
+        return getDynamoTable(Person.class).scan(request);
+    }
+
+    List<PagePublisher<Person>> scanSegments(int totalSegments) {
+        if (totalSegments < 1) {
+            throw new IllegalArgumentException("A parallel scan needs at least one segment");
+        }
+
+        DynamoDbAsyncTable<Person> table = getDynamoTable(Person.class);
+        return IntStream.range(0, totalSegments)
+                .mapToObj(segment -> table.scan(ScanEnhancedRequest.builder()
+                        .consistentRead(true)
+                        .segment(segment)
+                        .totalSegments(totalSegments)
+                        .build()))
+                .collect(toList());
+    }
+
+    private <T> CompletableFuture<List<T>> collectAsync(SdkPublisher<Page<T>> publisher) {
+        CollectingSubscriber<Page<T>> subscriber = new CollectingSubscriber<>(subscriberConfig);
+        publisher.subscribe(subscriber);
+
+        return subscriber.result().thenApply(pages -> pages.stream()
+                .map(Page::items)
+                .flatMap(List::stream)
+                .collect(toList()));
+    }
+
+    public CompletableFuture<Siblings> findSiblings(Integer id) {
+        return findPerson(id).thenCompose(p -> p
+                .map(this::findSiblingsOf)
+                .orElseGet(() -> completedFuture(new Siblings())));
+    }
+
+    private CompletableFuture<Siblings> findSiblingsOf(Person person) {
+        CompletableFuture<List<Person>> byFather = findPersonByFather(person.getFatherId());
+        CompletableFuture<List<Person>> byMother = findPersonByMother(person.getMotherId());
+
+        return byFather
+                .thenCombine(byMother, (fathers, mothers) -> Stream
+                        .concat(fathers.stream(), mothers.stream())
+                        .collect(Collectors.toSet()))
+                .thenCompose(allSiblings -> extractParents(allSiblings)
+                        .thenApply(parents -> new Siblings(person, allSiblings, parents)));
+    }
+
+    private CompletableFuture<List<Person>> extractParents(Set<Person> allSiblings) {
+        List<Integer> parentIds = allSiblings.stream()
+                .map(s -> asList(s.getFatherId(), s.getMotherId()))
+                .flatMap(Collection::stream)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(toList());
+
+        return findPeopleById(parentIds).thenApply(parents -> parents.stream()
+                .sorted(Comparator.comparing(Person::getId))
+                .collect(toList()));
+    }
+
+    private CompletableFuture<List<Person>> findPeopleById(List<Integer> ids) {
+        List<Person> cachedPeople = new ArrayList<>();
+        List<Integer> uncachedIds = new ArrayList<>();
+        ids.forEach(id -> personCache.get(id).ifPresentOrElse(cachedPeople::add, () -> uncachedIds.add(id)));
+
+        return batchGet(uncachedIds, Person.class).thenApply(loaded -> {
+            loaded.forEach(p -> personCache.put(p.getId(), p));
+            List<Person> people = new ArrayList<>(cachedPeople);
+            people.addAll(loaded);
+            return people;
+        });
+    }
+
+    private <T extends DynamoDbMappedBean> CompletableFuture<List<T>> batchGet(List<Integer> ids, Class<T> beanClass) {
+        List<CompletableFuture<List<T>>> batches = ListUtils.partition(ids, BATCH_GET_SIZE).stream()
+                .map(batch -> batchGetPartition(batch, beanClass))
+                .collect(toList());
+
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0]))
+                .thenApply(v -> batches.stream()
+                        .map(CompletableFuture::join)
+                        .flatMap(List::stream)
+                        .collect(toList()));
+    }
+
+    private <T extends DynamoDbMappedBean> CompletableFuture<List<T>> batchGetPartition(List<Integer> ids, Class<T> beanClass) {
+        DynamoDbAsyncTable<T> table = getDynamoTable(beanClass);
+        ReadBatch.Builder<T> readBatch = ReadBatch.builder(beanClass).mappedTableResource(table);
+        ids.forEach(id -> readBatch.addGetItem(Key.builder().partitionValue(id).build()));
+
+        BatchGetResultPagePublisher publisher = getEnhancedDynamoClient()
+                .batchGetItem(r -> r.readBatches(readBatch.build()));
+
+        CollectingSubscriber<T> subscriber = new CollectingSubscriber<>(subscriberConfig);
+        publisher.resultsForTable(table).subscribe(subscriber);
+        return subscriber.result();
+    }
+
+    public CompletableFuture<List<List<Person>>> findAncestors(Integer id, int depth) {
+        FamilyTraversal traversal = traversal();
+        traversal.checkDepth(depth);
+        return findPerson(id).thenCompose(p -> p
+                .map(person -> traversal.ancestors(person, depth))
+                .orElseGet(() -> completedFuture(emptyList())));
+    }
+
+    public CompletableFuture<List<List<Person>>> findDescendants(Integer id, int depth) {
+        FamilyTraversal traversal = traversal();
+        traversal.checkDepth(depth);
+        if (id == null) {
+            return completedFuture(emptyList());
+        }
+        return traversal.descendants(id, depth);
+    }
+
+    FamilyTraversal traversal() {
+        return new FamilyTraversal(config.getTraversalConfig(), this::findPeopleById, this::findChildren);
+    }
+
+    private CompletableFuture<List<Person>> findChildren(Integer id) {
+        return findPersonByFather(id).thenCombine(findPersonByMother(id), (byFather, byMother) -> {
+            List<Person> children = new ArrayList<>(byFather);
+            children.addAll(byMother);
+            return children;
+        });
+    }
+
+    public CompletableFuture<List<Person>> findPeople() {
+        return collectAsync(scanPages()).thenApply(people -> people.stream()
+                .sorted(PEOPLE_BY_NAME)
+                .collect(toList()));
+    }
+
+    public CompletableFuture<ResultPage<Person>> findPeopleByName(int limit, String continuationToken) {
+        checkPageLimit(limit);
+        return firstPage(queryByName(QueryEnhancedRequest.builder()
+                .limit(limit)
+                .exclusiveStartKey(ContinuationTokens.decode(continuationToken))));
+    }
+
+    private SdkPublisher<Page<Person>> queryByName(QueryEnhancedRequest.Builder request) {
+        return getDynamoTable(Person.class).index(NAME_INDEX).query(request
+                .queryConditional(keyEqualTo(k -> k.partitionValue(Person.ENTITY_TYPE)))
+                .build());
+    }
+
+    @SafeVarargs
+    public final CompletableFuture<BulkLoadStatistics> load(List<? extends DynamoDbMappedBean>... dataLists) {
+        return bulkLoader().loadAsync(Stream.of(dataLists).<DynamoDbMappedBean>flatMap(List::stream).iterator());
+    }
+
+    public <T extends DynamoDbMappedBean> CompletableFuture<BulkLoadStatistics> load(Publisher<T> items) {
+        return bulkLoader().loadAsync(items);
+    }
+
+    BulkLoader bulkLoader() {
+        return new BulkLoader(bulkLoadClient, config.getBulkLoadConfig(), rateLimiters, this::invalidateCached);
+    }
+
+    public CompletableFuture<UpdateStatistics> updateEntities(List<? extends DynamoDbMappedBean> entities) {
+        return updater().update(entities);
+    }
+
+    TransactionalUpdater updater() {
+        return new TransactionalUpdater(getEnhancedDynamoClient(), config.getUpdateConfig(), this::cacheUpdated, this::invalidateCached);
+    }
+
+    private void invalidateCached(DynamoDbMappedBean entity) {
+        if (entity instanceof Person) {
+            personCache.invalidate(((Person) entity).getId());
+        }
+    }
+
+    private void cacheUpdated(DynamoDbMappedBean entity) {
+        if (entity instanceof Person) {
+            Person person = (Person) entity;
+            personCache.put(person.getId(), person);
+        }
+    }
+}
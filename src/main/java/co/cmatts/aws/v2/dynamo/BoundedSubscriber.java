@@ -0,0 +1,54 @@
+package co.cmatts.aws.v2.dynamo;
+
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+public abstract class BoundedSubscriber<T> implements Subscriber<T> {
+    protected final SubscriberConfig config;
+
+    private final AtomicReference<Subscription> subscription = new AtomicReference<>();
+    private final AtomicBoolean cancelled = new AtomicBoolean(false);
+
+    protected BoundedSubscriber(SubscriberConfig config) {
+        if (config.getPrefetch() < 1) {
+            throw new IllegalArgumentException("Subscriber prefetch must be at least 1");
+        }
+        this.config = config;
+    }
+
+    @Override
+    public void onSubscribe(Subscription s) {
+        if (cancelled.get() || !subscription.compareAndSet(null, s)) {
+            s.cancel();
+            return;
+        }
+        if (cancelled.get()) {
+            s.cancel();
+            return;
+        }
+        s.request(config.getPrefetch());
+    }
+
+    protected void request(long n) {
+        Subscription s = subscription.get();
+        if (s != null && !cancelled.get()) {
+            s.request(n);
+        }
+    }
+
+    public void cancel() {
+        if (cancelled.compareAndSet(false, true)) {
+            Subscription s = subscription.get();
+            if (s != null) {
+                s.cancel();
+            }
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+}
@@ -0,0 +1,29 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.dynamo.ThrottleConfig;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+@Value
+@Builder
+public class BulkLoadConfig {
+    @Builder.Default
+    int maxInFlightBatches = 4;
+    @Builder.Default
+    int maxRetries = 8;
+    @Builder.Default
+    Duration initialBackoff = Duration.ofMillis(50L);
+    @Builder.Default
+    Duration maxBackoff = Duration.ofSeconds(5L);
+    @Builder.Default
+    ThrottleConfig throttleConfig = ThrottleConfig.disabled();
+    @Builder.Default
+    Consumer<BulkLoadStatistics> progressListener = statistics -> { };
+
+    public static BulkLoadConfig defaults() {
+        return BulkLoadConfig.builder().build();
+    }
+}
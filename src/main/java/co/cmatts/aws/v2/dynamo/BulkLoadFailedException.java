@@ -0,0 +1,13 @@
+package co.cmatts.aws.v2.dynamo;
+
+import lombok.Getter;
+
+@Getter
+public class BulkLoadFailedException extends IllegalStateException {
+    private final BulkLoadStatistics statistics;
+
+    public BulkLoadFailedException(BulkLoadStatistics statistics, Throwable cause) {
+        super("DynamoDb bulk load failed after writing " + statistics.getItemsWritten() + " items", cause);
+        this.statistics = statistics;
+    }
+}
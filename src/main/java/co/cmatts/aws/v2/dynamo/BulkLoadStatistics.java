@@ -0,0 +1,25 @@
+package co.cmatts.aws.v2.dynamo;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+public class BulkLoadStatistics {
+    long itemsWritten;
+    long batchesWritten;
+    long retries;
+    Duration elapsed;
+
+    public double itemsPerSecond() {
+        if (elapsed.isZero()) {
+            return 0.0;
+        }
+        return itemsWritten * 1000.0 / Math.max(1L, elapsed.toMillis());
+    }
+
+    public BulkLoadStatistics plus(BulkLoadStatistics other) {
+        return new BulkLoadStatistics(itemsWritten + other.itemsWritten, batchesWritten + other.batchesWritten,
+                retries + other.retries, elapsed.plus(other.elapsed));
+    }
+}
@@ -0,0 +1,296 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.dynamo.TableRateLimiters;
+import co.cmatts.aws.v2.dynamo.model.DynamoDbMappedBean;
+import org.reactivestreams.Publisher;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static co.cmatts.aws.v2.dynamo.Dynamo.getDynamoTable;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.stream.Collectors.groupingBy;
+import static java.util.stream.Collectors.toList;
+
+public class BulkLoader {
+    private static final int BATCH_SIZE = 25;
+
+    private final DynamoDbEnhancedAsyncClient client;
+    private final BulkLoadConfig config;
+    private final TableRateLimiters rateLimiters;
+    private final Consumer<DynamoDbMappedBean> writeListener;
+
+    public BulkLoader(DynamoDbEnhancedAsyncClient client, BulkLoadConfig config) {
+        this(client, config, item -> { });
+    }
+
+    public BulkLoader(DynamoDbEnhancedAsyncClient client, BulkLoadConfig config,
+                      Consumer<DynamoDbMappedBean> writeListener) {
+        this(client, config, new TableRateLimiters(config.getThrottleConfig()), writeListener);
+    }
+
+    public BulkLoader(DynamoDbEnhancedAsyncClient client, BulkLoadConfig config, TableRateLimiters rateLimiters,
+                      Consumer<DynamoDbMappedBean> writeListener) {
+        if (config.getMaxInFlightBatches() < 1) {
+            throw new IllegalArgumentException("A bulk load needs at least one batch in flight");
+        }
+        this.client = client;
+        this.config = config;
+        this.rateLimiters = rateLimiters;
+        this.writeListener = writeListener;
+    }
+
+    public TableRateLimiters rateLimiters() {
+        return rateLimiters;
+    }
+
+    public BulkLoadStatistics load(Iterator<? extends DynamoDbMappedBean> items) {
+        BulkLoad bulkLoad = new BulkLoad();
+        Semaphore inFlight = new Semaphore(config.getMaxInFlightBatches());
+
+        try {
+            while (items.hasNext() && !bulkLoad.hasFailed()) {
+                List<DynamoDbMappedBean> batch = nextBatch(items);
+                inFlight.acquire();
+                bulkLoad.write(batch).whenComplete((result, error) -> inFlight.release());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            bulkLoad.failed(new IllegalStateException("DynamoDb bulk load was interrupted", e));
+        } catch (RuntimeException e) {
+            bulkLoad.failed(e);
+        }
+
+        inFlight.acquireUninterruptibly(config.getMaxInFlightBatches());
+        if (bulkLoad.hasFailed()) {
+            throw new BulkLoadFailedException(bulkLoad.statistics(), bulkLoad.failure());
+        }
+        return bulkLoad.statistics();
+    }
+
+    public <T extends DynamoDbMappedBean> BulkLoadStatistics load(Publisher<T> items) {
+        try {
+            return loadAsync(items).join();
+        } catch (CompletionException e) {
+            throw new IllegalStateException("DynamoDb bulk load failed", e.getCause());
+        }
+    }
+
+    public CompletableFuture<BulkLoadStatistics> loadAsync(Iterator<? extends DynamoDbMappedBean> items) {
+        BulkLoad bulkLoad = new BulkLoad();
+        CompletableFuture<?>[] lanes = IntStream.range(0, config.getMaxInFlightBatches())
+                .mapToObj(lane -> writeRemaining(bulkLoad, items))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(lanes).handle((v, error) -> {
+            if (bulkLoad.hasFailed()) {
+                throw new BulkLoadFailedException(bulkLoad.statistics(), bulkLoad.failure());
+            }
+            return bulkLoad.statistics();
+        });
+    }
+
+    public <T extends DynamoDbMappedBean> CompletableFuture<BulkLoadStatistics> loadAsync(Publisher<T> items) {
+        BatchSubscriber<T> subscriber = new BatchSubscriber<>();
+        SdkPublisher.adapt(items).buffer(BATCH_SIZE).subscribe(subscriber);
+        return subscriber.result;
+    }
+
+    private CompletableFuture<Void> writeRemaining(BulkLoad bulkLoad, Iterator<? extends DynamoDbMappedBean> items) {
+        List<DynamoDbMappedBean> batch;
+        try {
+            batch = bulkLoad.hasFailed() ? List.of() : nextBatch(items);
+        } catch (RuntimeException e) {
+            bulkLoad.failed(e);
+            batch = List.of();
+        }
+        if (batch.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return bulkLoad.write(batch).thenCompose(v -> writeRemaining(bulkLoad, items));
+    }
+
+    private static List<DynamoDbMappedBean> nextBatch(Iterator<? extends DynamoDbMappedBean> items) {
+        List<DynamoDbMappedBean> batch = new ArrayList<>(BATCH_SIZE);
+        synchronized (items) {
+            while (items.hasNext() && batch.size() < BATCH_SIZE) {
+                batch.add(items.next());
+            }
+        }
+        return batch;
+    }
+
+    private CompletableFuture<Void> write(Map<Class<DynamoDbMappedBean>, List<DynamoDbMappedBean>> entities,
+                                          int attempt, AtomicLong retries) {
+        List<WriteBatch> batchWrites = entities
+                .entrySet()
+                .stream()
+                .map(e -> writeBatchForEntity(e.getValue(), e.getKey()))
+                .collect(toList());
+
+        return throttle(entities)
+                .thenCompose(v -> client.batchWriteItem(b -> b.writeBatches(batchWrites)))
+                .thenCompose(result -> {
+                    Map<Class<DynamoDbMappedBean>, List<DynamoDbMappedBean>> unprocessed = unprocessedItems(result, entities);
+                    if (unprocessed.isEmpty()) {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                    if (attempt >= config.getMaxRetries()) {
+                        return CompletableFuture.failedFuture(new IllegalStateException(
+                                "DynamoDb query failed to write all content after " + attempt + " retries"));
+                    }
+
+                    retries.incrementAndGet();
+                    Executor delayed = CompletableFuture.delayedExecutor(backoffMillis(attempt), MILLISECONDS);
+                    return CompletableFuture.supplyAsync(() -> unprocessed, delayed)
+                            .thenCompose(items -> write(items, attempt + 1, retries));
+                });
+    }
+
+    private CompletableFuture<Void> throttle(Map<Class<DynamoDbMappedBean>, List<DynamoDbMappedBean>> entities) {
+        if (!rateLimiters.isEnabled()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        long delay = entities.entrySet().stream()
+                .mapToLong(e -> rateLimiters
+                        .forTable(getDynamoTable(client, e.getKey()).tableName())
+                        .reserve(e.getValue().size()))
+                .max()
+                .orElse(0L);
+        if (delay == 0L) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(delay, NANOSECONDS));
+    }
+
+    private Map<Class<DynamoDbMappedBean>, List<DynamoDbMappedBean>> unprocessedItems(
+            BatchWriteResult result, Map<Class<DynamoDbMappedBean>, List<DynamoDbMappedBean>> entities) {
+        Map<Class<DynamoDbMappedBean>, List<DynamoDbMappedBean>> unprocessed = new HashMap<>();
+        entities.keySet().forEach(beanClass -> {
+            DynamoDbAsyncTable<DynamoDbMappedBean> table = getDynamoTable(client, beanClass);
+            List<DynamoDbMappedBean> items = result.unprocessedPutItemsForTable(table);
+            if (!items.isEmpty()) {
+                unprocessed.put(beanClass, items);
+            }
+        });
+        return unprocessed;
+    }
+
+    private <T extends DynamoDbMappedBean> WriteBatch writeBatchForEntity(List<T> entities, Class<T> beanClass) {
+        DynamoDbAsyncTable<T> table = getDynamoTable(client, beanClass);
+
+        WriteBatch.Builder<T> batch = WriteBatch.builder(beanClass).mappedTableResource(table);
+        entities.forEach(e -> batch.addPutItem(e));
+        return batch.build();
+    }
+
+    private long backoffMillis(int attempt) {
+        long ceiling = Math.min(config.getMaxBackoff().toMillis(),
+                config.getInitialBackoff().toMillis() << Math.min(attempt, 20));
+        return ceiling / 2 + ThreadLocalRandom.current().nextLong(ceiling / 2 + 1);
+    }
+
+    private class BulkLoad {
+        private final long started = System.nanoTime();
+        private final AtomicLong itemsWritten = new AtomicLong();
+        private final AtomicLong batchesWritten = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        private CompletableFuture<Void> write(List<DynamoDbMappedBean> batch) {
+            Map<Class<DynamoDbMappedBean>, List<DynamoDbMappedBean>> entities = batch
+                    .stream()
+                    .collect(groupingBy(g -> (Class<DynamoDbMappedBean>) g.getClass()));
+
+            return BulkLoader.this.write(entities, 0, retries).whenComplete((result, error) -> {
+                if (error != null) {
+                    failed(error);
+                } else {
+                    itemsWritten.addAndGet(batch.size());
+                    batchesWritten.incrementAndGet();
+                    batch.forEach(writeListener);
+                }
+                config.getProgressListener().accept(statistics());
+            });
+        }
+
+        private void failed(Throwable error) {
+            failure.compareAndSet(null, error);
+        }
+
+        private boolean hasFailed() {
+            return failure.get() != null;
+        }
+
+        private Throwable failure() {
+            return failure.get();
+        }
+
+        private BulkLoadStatistics statistics() {
+            return new BulkLoadStatistics(itemsWritten.get(), batchesWritten.get(), retries.get(),
+                    Duration.ofNanos(System.nanoTime() - started));
+        }
+    }
+
+    private class BatchSubscriber<T extends DynamoDbMappedBean> extends BoundedSubscriber<List<T>> {
+        private final BulkLoad bulkLoad = new BulkLoad();
+        private final CompletableFuture<BulkLoadStatistics> result = new CompletableFuture<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private volatile boolean upstreamComplete = false;
+
+        private BatchSubscriber() {
+            super(SubscriberConfig.builder().prefetch(config.getMaxInFlightBatches()).build());
+        }
+
+        @Override
+        public void onNext(List<T> items) {
+            inFlight.incrementAndGet();
+            bulkLoad.write(new ArrayList<>(items)).whenComplete((v, error) -> {
+                if (error != null) {
+                    cancel();
+                    result.completeExceptionally(error);
+                    return;
+                }
+                if (inFlight.decrementAndGet() == 0 && upstreamComplete) {
+                    result.complete(bulkLoad.statistics());
+                } else {
+                    request(1);
+                }
+            });
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            result.completeExceptionally(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            upstreamComplete = true;
+            if (inFlight.get() == 0) {
+                result.complete(bulkLoad.statistics());
+            }
+        }
+    }
+}
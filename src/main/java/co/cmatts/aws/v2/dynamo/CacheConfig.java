@@ -0,0 +1,23 @@
+package co.cmatts.aws.v2.dynamo;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+@Builder
+public class CacheConfig {
+    @Builder.Default
+    int maximumSize = 0;
+    @Builder.Default
+    Duration ttl = Duration.ofMinutes(5L);
+
+    public boolean isEnabled() {
+        return maximumSize > 0;
+    }
+
+    public static CacheConfig disabled() {
+        return CacheConfig.builder().build();
+    }
+}
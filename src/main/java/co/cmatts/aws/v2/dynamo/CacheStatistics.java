@@ -0,0 +1,16 @@
+package co.cmatts.aws.v2.dynamo;
+
+import lombok.Value;
+
+@Value
+public class CacheStatistics {
+    long hits;
+    long misses;
+    long evictions;
+    int size;
+
+    public double hitRate() {
+        long requests = hits + misses;
+        return requests == 0 ? 0.0 : (double) hits / requests;
+    }
+}
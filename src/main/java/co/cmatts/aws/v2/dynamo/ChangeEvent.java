@@ -0,0 +1,19 @@
+package co.cmatts.aws.v2.dynamo;
+
+import lombok.Value;
+import software.amazon.awssdk.services.dynamodb.model.OperationType;
+
+import java.time.Instant;
+
+@Value
+public class ChangeEvent<T> {
+    OperationType type;
+    String sequenceNumber;
+    Instant approximateCreationTime;
+    T oldImage;
+    T newImage;
+
+    public T item() {
+        return newImage != null ? newImage : oldImage;
+    }
+}
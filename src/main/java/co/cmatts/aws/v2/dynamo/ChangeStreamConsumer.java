@@ -0,0 +1,209 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.v2.dynamo.model.DynamoDbMappedBean;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DescribeStreamResponse;
+import software.amazon.awssdk.services.dynamodb.model.ExpiredIteratorException;
+import software.amazon.awssdk.services.dynamodb.model.GetRecordsResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetShardIteratorRequest;
+import software.amazon.awssdk.services.dynamodb.model.Record;
+import software.amazon.awssdk.services.dynamodb.model.Shard;
+import software.amazon.awssdk.services.dynamodb.model.StreamRecord;
+import software.amazon.awssdk.services.dynamodb.model.TrimmedDataAccessException;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsClient;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Consumer;
+
+import static co.cmatts.aws.v2.dynamo.Dynamo.getDynamoStreamsClient;
+import static co.cmatts.aws.v2.dynamo.Dynamo.getDynamoTable;
+import static co.cmatts.aws.v2.dynamo.Dynamo.getTableSchema;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toSet;
+import static software.amazon.awssdk.services.dynamodb.model.ShardIteratorType.AFTER_SEQUENCE_NUMBER;
+import static software.amazon.awssdk.services.dynamodb.model.ShardIteratorType.TRIM_HORIZON;
+
+public class ChangeStreamConsumer<T extends DynamoDbMappedBean> implements AutoCloseable {
+
+    private final DynamoDbStreamsClient client;
+    private final TableSchema<T> schema;
+    private final String tableName;
+    private final CheckpointStore checkpoints;
+    private final StreamConfig config;
+    private final Consumer<ChangeEvent<T>> listener;
+    private final Map<String, String> iterators = new HashMap<>();
+    private final Set<String> closedShards = new HashSet<>();
+    private String streamArn;
+    private ScheduledExecutorService executor;
+
+    public ChangeStreamConsumer(Class<T> beanClass, CheckpointStore checkpoints, Consumer<ChangeEvent<T>> listener) {
+        this(beanClass, checkpoints, StreamConfig.defaults(), listener);
+    }
+
+    public ChangeStreamConsumer(Class<T> beanClass, CheckpointStore checkpoints, StreamConfig config,
+                                Consumer<ChangeEvent<T>> listener) {
+        this.client = getDynamoStreamsClient();
+        this.schema = getTableSchema(beanClass);
+        this.tableName = getDynamoTable(beanClass).tableName();
+        this.checkpoints = checkpoints;
+        this.config = config;
+        this.listener = listener;
+    }
+
+    public synchronized void start() {
+        if (executor != null) {
+            return;
+        }
+
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dynamo-stream-" + tableName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::pollQuietly, 0L, config.getPollInterval().toMillis(), MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    public synchronized int poll() {
+        List<Shard> shards = shards();
+        Set<String> shardIds = shards.stream().map(Shard::shardId).collect(toSet());
+
+        int delivered = 0;
+        for (Shard shard : shards) {
+            String parent = shard.parentShardId();
+            boolean parentPending = parent != null && shardIds.contains(parent) && !closedShards.contains(parent);
+            if (!closedShards.contains(shard.shardId()) && !parentPending) {
+                delivered += pollShard(shard.shardId());
+            }
+        }
+        return delivered;
+    }
+
+    private void pollQuietly() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            config.getErrorListener().accept(e);
+        }
+    }
+
+    private int pollShard(String shardId) {
+        int delivered = 0;
+        try {
+            String iterator = iterators.computeIfAbsent(shardId, this::shardIterator);
+            while (iterator != null) {
+                GetRecordsResponse response = getRecords(shardId, iterator);
+                if (response == null) {
+                    return delivered;
+                }
+
+                List<Record> records = response.records();
+                for (Record record : records) {
+                    listener.accept(toEvent(record));
+                }
+                if (!records.isEmpty()) {
+                    delivered += records.size();
+                    checkpoints.checkpoint(streamArn(), shardId, records.get(records.size() - 1).dynamodb().sequenceNumber());
+                }
+
+                iterator = response.nextShardIterator();
+                if (iterator == null) {
+                    closedShards.add(shardId);
+                    iterators.remove(shardId);
+                } else {
+                    iterators.put(shardId, iterator);
+                    if (records.isEmpty()) {
+                        break;
+                    }
+                }
+            }
+            return delivered;
+        } catch (RuntimeException e) {
+            iterators.remove(shardId);
+            throw e;
+        }
+    }
+
+    private GetRecordsResponse getRecords(String shardId, String iterator) {
+        try {
+            return client.getRecords(r -> r.shardIterator(iterator).limit(config.getBatchSize()));
+        } catch (ExpiredIteratorException e) {
+            iterators.remove(shardId);
+            return null;
+        }
+    }
+
+    private String shardIterator(String shardId) {
+        Optional<String> checkpoint = checkpoints.checkpoint(streamArn(), shardId);
+        GetShardIteratorRequest.Builder request = GetShardIteratorRequest.builder()
+                .streamArn(streamArn())
+                .shardId(shardId);
+        checkpoint.ifPresentOrElse(
+                sequenceNumber -> request.shardIteratorType(AFTER_SEQUENCE_NUMBER).sequenceNumber(sequenceNumber),
+                () -> request.shardIteratorType(config.getInitialPosition()));
+
+        try {
+            return client.getShardIterator(request.build()).shardIterator();
+        } catch (TrimmedDataAccessException e) {
+            CheckpointTrimmedException trimmed = new CheckpointTrimmedException(streamArn(), shardId, checkpoint.orElse(null), e);
+            if (!config.isRestartingTrimmedShards()) {
+                throw trimmed;
+            }
+            config.getErrorListener().accept(trimmed);
+            return client.getShardIterator(r -> r.streamArn(streamArn()).shardId(shardId).shardIteratorType(TRIM_HORIZON))
+                    .shardIterator();
+        }
+    }
+
+    private List<Shard> shards() {
+        List<Shard> shards = new ArrayList<>();
+        String exclusiveStartShardId = null;
+        do {
+            String startShardId = exclusiveStartShardId;
+            DescribeStreamResponse response = client.describeStream(r -> r.streamArn(streamArn())
+                    .exclusiveStartShardId(startShardId));
+            shards.addAll(response.streamDescription().shards());
+            exclusiveStartShardId = response.streamDescription().lastEvaluatedShardId();
+        } while (exclusiveStartShardId != null);
+        return shards;
+    }
+
+    private String streamArn() {
+        if (streamArn == null) {
+            streamArn = client.listStreams(r -> r.tableName(tableName)).streams().stream()
+                    .map(software.amazon.awssdk.services.dynamodb.model.Stream::streamArn)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("DynamoDb table " + tableName + " has no stream enabled"));
+        }
+        return streamArn;
+    }
+
+    private ChangeEvent<T> toEvent(Record record) {
+        StreamRecord change = record.dynamodb();
+        return new ChangeEvent<>(record.eventName(), change.sequenceNumber(), change.approximateCreationDateTime(),
+                toItem(change.oldImage()), toItem(change.newImage()));
+    }
+
+    private T toItem(Map<String, AttributeValue> image) {
+        if (image == null || image.isEmpty()) {
+            return null;
+        }
+        return schema.mapToItem(image);
+    }
+}
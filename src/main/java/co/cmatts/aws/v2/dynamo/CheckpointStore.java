@@ -0,0 +1,9 @@
+package co.cmatts.aws.v2.dynamo;
+
+import java.util.Optional;
+
+public interface CheckpointStore {
+    Optional<String> checkpoint(String streamArn, String shardId);
+
+    void checkpoint(String streamArn, String shardId, String sequenceNumber);
+}
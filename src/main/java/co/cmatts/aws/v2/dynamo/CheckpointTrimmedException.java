@@ -0,0 +1,18 @@
+package co.cmatts.aws.v2.dynamo;
+
+import lombok.Getter;
+
+@Getter
+public class CheckpointTrimmedException extends RuntimeException {
+    private final String streamArn;
+    private final String shardId;
+    private final String sequenceNumber;
+
+    public CheckpointTrimmedException(String streamArn, String shardId, String sequenceNumber, Throwable cause) {
+        super("DynamoDb stream checkpoint " + sequenceNumber + " for shard " + shardId
+                + " is older than the stream retention, records after it have been lost", cause);
+        this.streamArn = streamArn;
+        this.shardId = shardId;
+        this.sequenceNumber = sequenceNumber;
+    }
+}
@@ -1,61 +1,77 @@
 package co.cmatts.aws.v2.dynamo;
 
-import org.reactivestreams.Subscriber;
-import org.reactivestreams.Subscription;
-
 import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
-public class CollectingSubscriber<T> implements Subscriber<T> {
-    private static final long TIMEOUT_MILLIS = 5000L;
+public class CollectingSubscriber<T> extends BoundedSubscriber<T> {
 
-    private final CountDownLatch latch = new CountDownLatch(1);
     private final List<T> collectedItems = new ArrayList<>();
-    private Throwable error = null;
-    private boolean isCompleted = false;
+    private final CompletableFuture<List<T>> result = new CompletableFuture<>();
+    private long receivedInWindow = 0;
 
-    @Override
-    public void onSubscribe(Subscription subscription) {
-        subscription.request(Long.MAX_VALUE);
+    public CollectingSubscriber() {
+        this(SubscriberConfig.defaults());
+    }
+
+    public CollectingSubscriber(SubscriberConfig config) {
+        super(config);
+        result.orTimeout(config.getTimeout().toMillis(), MILLISECONDS)
+                .whenComplete((items, error) -> {
+                    if (error != null) {
+                        cancel();
+                    }
+                });
     }
 
     @Override
     public void onNext(T t) {
         collectedItems.add(t);
+        if (++receivedInWindow == config.getPrefetch()) {
+            receivedInWindow = 0;
+            request(config.getPrefetch());
+        }
     }
 
     @Override
     public void onError(Throwable throwable) {
-        this.error = throwable;
-        this.latch.countDown();
+        result.completeExceptionally(throwable);
     }
 
     @Override
     public void onComplete() {
-        this.isCompleted = true;
-        this.latch.countDown();
-    }
-
-    public void waitForCompletion() {
-        try {
-            this.latch.await(TIMEOUT_MILLIS, MILLISECONDS);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
+        result.complete(collectedItems);
     }
 
-    public List<T> collectedItems() {
-        return collectedItems;
+    @Override
+    public void cancel() {
+        super.cancel();
+        result.completeExceptionally(new CancellationException("DynamoDb query was cancelled"));
     }
 
-    public Throwable error() {
-        return error;
+    public CompletableFuture<List<T>> result() {
+        return result;
     }
 
-    public boolean isCompleted() {
-        return isCompleted;
+    public List<T> await() {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                cancel();
+                throw new IllegalStateException("DynamoDb query failed to get all content within " +
+                        config.getTimeout(), e.getCause());
+            }
+            throw new IllegalStateException("DynamoDb query failed with an error", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new RuntimeException(e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,12 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.v2.dynamo.model.DynamoDbMappedBean;
+
+@FunctionalInterface
+public interface ConflictResolver {
+    DynamoDbMappedBean resolve(DynamoDbMappedBean attempted, DynamoDbMappedBean current);
+
+    static ConflictResolver keepAttempted() {
+        return (attempted, current) -> attempted.copy();
+    }
+}
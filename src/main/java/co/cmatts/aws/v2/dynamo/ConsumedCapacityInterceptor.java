@@ -0,0 +1,67 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.dynamo.AdaptiveRateLimiter;
+import co.cmatts.aws.dynamo.TableRateLimiters;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConsumedCapacity;
+import software.amazon.awssdk.services.dynamodb.model.ProvisionedThroughputExceededException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnConsumedCapacity;
+
+import java.util.Map;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toMap;
+
+public class ConsumedCapacityInterceptor implements ExecutionInterceptor {
+
+    private final TableRateLimiters rateLimiters;
+
+    public ConsumedCapacityInterceptor(TableRateLimiters rateLimiters) {
+        this.rateLimiters = rateLimiters;
+    }
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        SdkRequest request = context.request();
+        if (request instanceof BatchWriteItemRequest && ((BatchWriteItemRequest) request).returnConsumedCapacity() == null) {
+            return ((BatchWriteItemRequest) request).toBuilder()
+                    .returnConsumedCapacity(ReturnConsumedCapacity.TOTAL)
+                    .build();
+        }
+        return request;
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        if (!(context.request() instanceof BatchWriteItemRequest) || !(context.response() instanceof BatchWriteItemResponse)) {
+            return;
+        }
+
+        BatchWriteItemRequest request = (BatchWriteItemRequest) context.request();
+        BatchWriteItemResponse response = (BatchWriteItemResponse) context.response();
+        Map<String, Double> consumed = response.consumedCapacity().stream()
+                .filter(c -> c.capacityUnits() != null)
+                .collect(toMap(ConsumedCapacity::tableName, ConsumedCapacity::capacityUnits, Double::sum));
+
+        request.requestItems().forEach((tableName, writes) -> rateLimiters.find(tableName).ifPresent(limiter -> {
+            int unprocessed = response.unprocessedItems().getOrDefault(tableName, emptyList()).size();
+            limiter.onWrite(consumed.getOrDefault(tableName, 0.0), writes.size() - unprocessed, unprocessed);
+        }));
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        Throwable failure = context.exception();
+        boolean throttled = failure instanceof ProvisionedThroughputExceededException
+                || failure.getCause() instanceof ProvisionedThroughputExceededException;
+        if (throttled && context.request() instanceof BatchWriteItemRequest) {
+            ((BatchWriteItemRequest) context.request()).requestItems().keySet()
+                    .forEach(tableName -> rateLimiters.find(tableName).ifPresent(AdaptiveRateLimiter::onThrottled));
+        }
+    }
+}
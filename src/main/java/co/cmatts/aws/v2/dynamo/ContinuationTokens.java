@@ -0,0 +1,52 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.dynamo.ContinuationTokenCodec;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+public class ContinuationTokens {
+    private static final ContinuationTokenCodec<AttributeValue> CODEC = new ContinuationTokenCodec<>() {
+        @Override
+        protected String stringOf(AttributeValue value) {
+            return value.s();
+        }
+
+        @Override
+        protected String numberOf(AttributeValue value) {
+            return value.n();
+        }
+
+        @Override
+        protected byte[] bytesOf(AttributeValue value) {
+            return value.b() == null ? null : value.b().asByteArray();
+        }
+
+        @Override
+        protected AttributeValue fromString(String value) {
+            return AttributeValue.builder().s(value).build();
+        }
+
+        @Override
+        protected AttributeValue fromNumber(String value) {
+            return AttributeValue.builder().n(value).build();
+        }
+
+        @Override
+        protected AttributeValue fromBytes(byte[] value) {
+            return AttributeValue.builder().b(SdkBytes.fromByteArray(value)).build();
+        }
+    };
+
+    private ContinuationTokens() {
+    }
+
+    public static String encode(Map<String, AttributeValue> key) {
+        return CODEC.encode(key);
+    }
+
+    public static Map<String, AttributeValue> decode(String token) {
+        return CODEC.decode(token);
+    }
+}
@@ -1,74 +1,122 @@
 package co.cmatts.aws.v2.dynamo;
 
+import co.cmatts.aws.dynamo.TableRateLimiters;
+import co.cmatts.aws.metrics.MetricsSink;
 import co.cmatts.aws.v2.dynamo.model.DynamoDbMappedBean;
+import co.cmatts.aws.v2.dynamo.model.StaticSchemas;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
 import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.streams.DynamoDbStreamsClient;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static co.cmatts.aws.v2.client.Configuration.configureEndPoint;
 import static java.util.Collections.emptyList;
-import static java.util.Objects.isNull;
 
 public class Dynamo {
 
     public static final String TABLE_NAME_PREFIX = "dynamo.example.";
-    private static final Map<String, DynamoDbAsyncTable<?  extends DynamoDbMappedBean>> tables = new HashMap<>();
-    private static DynamoDbEnhancedAsyncClient enhancedClient;
-    private static DynamoDbEnhancedAsyncClient enhancedUnversionedClient;
+    private static final Map<Class<?>, TableSchema<?>> schemas = new ConcurrentHashMap<>();
+    private static final Map<Class<?>, String> tableNames = new ConcurrentHashMap<>();
+    private static final Map<DynamoDbEnhancedAsyncClient, Map<Class<?>, DynamoDbAsyncTable<?>>> tables = new ConcurrentHashMap<>();
+    private static volatile MetricsSink metricsSink = MetricsSink.NONE;
+
+    private static class EnhancedClient {
+        private static final DynamoDbEnhancedAsyncClient INSTANCE = DynamoDbEnhancedAsyncClient.builder()
+                .dynamoDbClient(dynamoDbClient())
+                .build();
+    }
 
-    public static DynamoDbEnhancedAsyncClient getEnhancedDynamoClient() {
-        if (!isNull(enhancedClient)) {
-            return enhancedClient;
-        }
+    private static class EnhancedUnversionedClient {
+        private static final DynamoDbEnhancedAsyncClient INSTANCE = enhancedUnversionedClient(dynamoDbClient());
+    }
 
-        DynamoDbEnhancedAsyncClient.Builder builder = DynamoDbEnhancedAsyncClient.builder();
-        builder.dynamoDbClient((DynamoDbAsyncClient) configureEndPoint(DynamoDbAsyncClient.builder()).build());
+    private static class StreamsClient {
+        private static final DynamoDbStreamsClient INSTANCE = (DynamoDbStreamsClient) configureEndPoint(DynamoDbStreamsClient.builder())
+                .build();
+    }
+
+    private static DynamoDbAsyncClient dynamoDbClient(ExecutionInterceptor... interceptors) {
+        return (DynamoDbAsyncClient) configureEndPoint(DynamoDbAsyncClient.builder()
+                .overrideConfiguration(o -> {
+                    List.of(interceptors).forEach(o::addExecutionInterceptor);
+                    o.addExecutionInterceptor(new MetricsInterceptor());
+                }))
+                .build();
+    }
 
-        enhancedClient = builder.build();
-        return enhancedClient;
+    private static DynamoDbEnhancedAsyncClient enhancedUnversionedClient(DynamoDbAsyncClient client) {
+        return DynamoDbEnhancedAsyncClient.builder()
+                .dynamoDbClient(client)
+                .extensions(emptyList())
+                .build();
+    }
+
+    public static MetricsSink getMetricsSink() {
+        return metricsSink;
+    }
+
+    public static void setMetricsSink(MetricsSink sink) {
+        metricsSink = sink == null ? MetricsSink.NONE : sink;
+    }
+
+    public static DynamoDbEnhancedAsyncClient getEnhancedDynamoClient() {
+        return EnhancedClient.INSTANCE;
     }
 
     public static DynamoDbEnhancedAsyncClient getEnhancedUnversionedDynamoClient() {
-        if (!isNull(enhancedUnversionedClient)) {
-            return enhancedUnversionedClient;
-        }
+        return EnhancedUnversionedClient.INSTANCE;
+    }
 
-        DynamoDbEnhancedAsyncClient.Builder builder = DynamoDbEnhancedAsyncClient.builder();
-        builder.dynamoDbClient((DynamoDbAsyncClient) configureEndPoint(DynamoDbAsyncClient.builder())
-                .build())
-                .extensions(emptyList());
+    public static DynamoDbAsyncClient newDynamoDbClient(TableRateLimiters rateLimiters) {
+        return dynamoDbClient(new ConsumedCapacityInterceptor(rateLimiters));
+    }
+
+    public static DynamoDbEnhancedAsyncClient newEnhancedUnversionedDynamoClient(DynamoDbAsyncClient client) {
+        return enhancedUnversionedClient(client);
+    }
 
-        enhancedUnversionedClient = builder.build();
+    public static void closeDynamoClient(DynamoDbEnhancedAsyncClient enhancedClient, DynamoDbAsyncClient client) {
+        tables.remove(enhancedClient);
+        client.close();
+    }
 
-        return enhancedUnversionedClient;
+    public static DynamoDbStreamsClient getDynamoStreamsClient() {
+        return StreamsClient.INSTANCE;
     }
 
     public static <T extends DynamoDbMappedBean> DynamoDbAsyncTable<T> getDynamoTable(Class<T> beanClass) {
-        DynamoDbAsyncTable<T> table = (DynamoDbAsyncTable<T>)tables.get(beanClass.getSimpleName());
-        if (isNull(table)) {
-            table = getDynamoTable(getEnhancedDynamoClient(), beanClass);
-            tables.put(beanClass.getSimpleName(), table);
-        }
-        return table;
+        return getDynamoTable(getEnhancedDynamoClient(), beanClass);
     }
 
     public static <T extends DynamoDbMappedBean> DynamoDbAsyncTable<T> getDynamoTable(DynamoDbEnhancedAsyncClient client, Class<T> beanClass) {
-        return client.table(getTableName(beanClass), TableSchema.fromBean(beanClass));
+        Map<Class<?>, DynamoDbAsyncTable<?>> clientTables = tables.computeIfAbsent(client, c -> new ConcurrentHashMap<>());
+        DynamoDbAsyncTable<?> table = clientTables.get(beanClass);
+        if (table == null) {
+            table = clientTables.computeIfAbsent(beanClass, c -> client.table(getTableName(beanClass), getTableSchema(beanClass)));
+        }
+        return (DynamoDbAsyncTable<T>) table;
+    }
+
+    public static <T extends DynamoDbMappedBean> TableSchema<T> getTableSchema(Class<T> beanClass) {
+        return (TableSchema<T>) schemas.computeIfAbsent(beanClass, c -> StaticSchemas.forClass(beanClass)
+                .orElseGet(() -> TableSchema.fromBean(beanClass)));
     }
 
     private static String getTableName(Class<? extends DynamoDbMappedBean> beanClass) {
-        String tableName;
-        try {
-            DynamoDbMappedBean instance = beanClass.getDeclaredConstructor().newInstance();
-            tableName = TABLE_NAME_PREFIX + instance.tableName();
-        } catch (Exception e) {
-            throw new IllegalArgumentException("getDynamoTable expects a DynamoDbMappedBean");
-        }
-        return tableName;
+        return tableNames.computeIfAbsent(beanClass, c -> {
+            try {
+                DynamoDbMappedBean instance = beanClass.getDeclaredConstructor().newInstance();
+                return TABLE_NAME_PREFIX + instance.tableName();
+            } catch (Exception e) {
+                throw new IllegalArgumentException("getDynamoTable expects a DynamoDbMappedBean");
+            }
+        });
     }
 
 }
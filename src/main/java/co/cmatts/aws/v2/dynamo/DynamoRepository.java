@@ -1,174 +1,204 @@
 package co.cmatts.aws.v2.dynamo;
 
+import co.cmatts.aws.dynamo.ResultPage;
 import co.cmatts.aws.v2.dynamo.model.DynamoDbMappedBean;
 import co.cmatts.aws.v2.dynamo.model.Fact;
 import co.cmatts.aws.v2.dynamo.model.Person;
+import co.cmatts.aws.v2.dynamo.model.PersonWithFacts;
 import co.cmatts.aws.v2.dynamo.model.Siblings;
-import org.apache.commons.collections4.ListUtils;
+import org.reactivestreams.Publisher;
 import software.amazon.awssdk.core.async.SdkPublisher;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncIndex;
-import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
-import software.amazon.awssdk.enhanced.dynamodb.Key;
-import software.amazon.awssdk.enhanced.dynamodb.model.*;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
-import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import static co.cmatts.aws.v2.dynamo.Dynamo.*;
-import static java.util.Arrays.asList;
-import static java.util.Collections.emptyList;
-import static java.util.Objects.isNull;
-import static java.util.stream.Collectors.groupingBy;
+import static co.cmatts.aws.dynamo.TopK.topK;
+import static co.cmatts.aws.v2.dynamo.AsyncDynamoRepository.*;
 import static java.util.stream.Collectors.toList;
-import static software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional.keyEqualTo;
 
-public class DynamoRepository {
+public class DynamoRepository implements AutoCloseable {
 
-    private static final String FATHER_INDEX = "fatherIndex";
-    private static final String MOTHER_INDEX = "motherIndex";
-    private static final String PERSON_INDEX = "personIndex";
-    private static final int BATCH_SIZE = 25;
+    private final AsyncDynamoRepository async;
+    private final SubscriberConfig subscriberConfig;
 
-    public Optional<Person> findPerson(Integer id) {
-        if (id == null) {
-            return Optional.empty();
-        }
+    public DynamoRepository() {
+        this(DynamoRepositoryConfig.defaults());
+    }
+
+    public DynamoRepository(DynamoRepositoryConfig config) {
+        this.async = new AsyncDynamoRepository(config);
+        this.subscriberConfig = config.getSubscriberConfig();
+    }
+
+    public AsyncDynamoRepository async() {
+        return async;
+    }
 
-        Key idKey = Key.builder().partitionValue(id).build();
-        CompletableFuture<Person> result = getDynamoTable(Person.class).getItem(r -> r.key(idKey));
+    @Override
+    public void close() {
+        async.close();
+    }
 
-        return Optional.ofNullable(result.join());
+    public Optional<Person> findPerson(Integer id) {
+        return async.findPerson(id).join();
+    }
+
+    public CacheStatistics personCacheStatistics() {
+        return async.personCacheStatistics();
     }
 
     public List<Person> findPersonByFather(Integer id) {
-        return findEntitiesByIndex(id, Person.class, FATHER_INDEX);
+        return async.findPersonByFather(id).join();
     }
 
     public List<Person> findPersonByMother(Integer id) {
-        return findEntitiesByIndex(id, Person.class, MOTHER_INDEX);
+        return async.findPersonByMother(id).join();
     }
 
     public List<Fact> findFacts(Integer id) {
-        return findEntitiesByIndex(id, Fact.class, PERSON_INDEX);
+        return async.findFacts(id).join();
+    }
+
+    public List<Person> findPersonByFather(Integer id, List<String> attributes) {
+        return async.findPersonByFather(id, attributes).join();
+    }
+
+    public List<Person> findPersonByMother(Integer id, List<String> attributes) {
+        return async.findPersonByMother(id, attributes).join();
+    }
+
+    public List<Fact> findFacts(Integer id, List<String> attributes) {
+        return async.findFacts(id, attributes).join();
+    }
+
+    public Optional<PersonWithFacts> findPersonWithFacts(Integer id) {
+        return async.findPersonWithFacts(id).join();
+    }
+
+    public List<PersonWithFacts> findPeopleWithFacts(List<Integer> ids) {
+        return async.findPeopleWithFacts(ids).join();
+    }
+
+    public ResultPage<Person> findPersonByFatherPage(Integer id, int limit, String continuationToken) {
+        return async.findPersonByFatherPage(id, limit, continuationToken).join();
+    }
+
+    public ResultPage<Person> findPersonByMotherPage(Integer id, int limit, String continuationToken) {
+        return async.findPersonByMotherPage(id, limit, continuationToken).join();
+    }
+
+    public ResultPage<Fact> findFactsPage(Integer id, int limit, String continuationToken) {
+        return async.findFactsPage(id, limit, continuationToken).join();
+    }
+
+    public ResultPage<Person> findPeoplePage(int limit, String continuationToken) {
+        return async.findPeoplePage(limit, continuationToken).join();
+    }
+
+    public Stream<Person> streamPersonByFather(Integer id) {
+        return streamEntitiesByIndex(id, Person.class, FATHER_INDEX);
+    }
+
+    public Stream<Person> streamPersonByMother(Integer id) {
+        return streamEntitiesByIndex(id, Person.class, MOTHER_INDEX);
     }
 
-    private <T extends DynamoDbMappedBean> List<T> findEntitiesByIndex(Integer id, Class<T> beanClass, String index) {
+    public Stream<Fact> streamFacts(Integer id) {
+        return streamEntitiesByIndex(id, Fact.class, PERSON_INDEX);
+    }
+
+    private <T extends DynamoDbMappedBean> Stream<T> streamEntitiesByIndex(Integer id, Class<T> beanClass, String index) {
         if (id == null) {
-            return emptyList();
+            return Stream.empty();
         }
 
-        DynamoDbAsyncIndex<T> parentIndex = getDynamoTable(beanClass).index(index);
-
-        SdkPublisher<Page<T>> publisher =
-                parentIndex.query(r -> r.consistentRead(false).queryConditional(keyEqualTo(k -> k.partitionValue(id))));
+        return streamFromPublisher(async.queryIndex(id, beanClass, index));
+    }
 
-        return collectFromPublisher(publisher);
+    private <T> Stream<T> streamFromPublisher(SdkPublisher<Page<T>> publisher) {
+        return PageStream.subscribe(subscriberConfig, publisher).stream();
     }
 
     private <T> List<T> collectFromPublisher(SdkPublisher<Page<T>> publisher) {
-        CollectingSubscriber<Page<T>> subscriber = new CollectingSubscriber<>();
+        CollectingSubscriber<Page<T>> subscriber = new CollectingSubscriber<>(subscriberConfig);
         publisher.subscribe(subscriber);
-        subscriber.waitForCompletion();
-        if (!isNull(subscriber.error())) {
-            throw new IllegalStateException("DynamoDb query failed with an error", subscriber.error());
-        }
-        if (!subscriber.isCompleted()) {
-            throw new IllegalStateException("DynamoDb query failed to get all content");
-        }
 
-        return subscriber.collectedItems().stream()
+        return subscriber.await().stream()
                 .map(Page::items)
                 .flatMap(List::stream)
                 .collect(Collectors.toList());
     }
 
     public Siblings findSiblings(Integer id) {
-        Optional<Person> p = findPerson(id);
-        if (p.isEmpty()) {
-            return new Siblings();
-        }
-        Person person = p.get();
-
-        Set<Person> allSiblings = Stream
-                .concat(findPersonByFather(person.getFatherId()).stream(),
-                        findPersonByMother(person.getMotherId()).stream())
-                .collect(Collectors.toSet());
+        return async.findSiblings(id).join();
+    }
 
-        return new Siblings(person, allSiblings, extractParents(allSiblings));
+    public List<List<Person>> findAncestors(Integer id, int depth) {
+        return async.findAncestors(id, depth).join();
     }
 
-    private List<Person> extractParents(Set<Person> allSiblings) {
-        return allSiblings.stream()
-                .map(s -> asList(s.getFatherId(), s.getMotherId()))
-                .flatMap(Collection::stream)
-                .filter(Objects::nonNull)
-                .distinct()
-                .map(this::findPerson)
-                .map(Optional::get)
-                .sorted(Comparator.comparing(Person::getId))
-                .collect(toList());
+    public List<List<Person>> findDescendants(Integer id, int depth) {
+        return async.findDescendants(id, depth).join();
     }
 
     public List<Person> findPeople() {
-        ScanEnhancedRequest request = ScanEnhancedRequest.builder()
-                .consistentRead(true)
-                .build();
-
-        PagePublisher<Person> publisher = getDynamoTable(Person.class).scan(request);
+        return collectFromPublisher(async.scanPages()).stream().sorted(PEOPLE_BY_NAME).collect(toList());
+    }
 
-        return collectFromPublisher(publisher).stream().sorted(Comparator.comparing(Person::getName)).collect(toList());
+    public ResultPage<Person> findPeopleByName(int limit, String continuationToken) {
+        return async.findPeopleByName(limit, continuationToken).join();
     }
 
-    @SafeVarargs
-    public final void load(List<? extends DynamoDbMappedBean>... dataLists) {
-        List<DynamoDbMappedBean> allData = Stream.of(dataLists).flatMap(List::stream).collect(toList());
-        ListUtils.partition(allData, BATCH_SIZE).forEach(this::loadBatch);
+    public List<Person> findPeople(int totalSegments) {
+        try (Stream<Person> people = streamPeople(totalSegments)) {
+            return people.sorted(PEOPLE_BY_NAME).collect(toList());
+        }
     }
 
-    private void loadBatch(List<DynamoDbMappedBean> data) {
-        Map<Class<DynamoDbMappedBean>, List<DynamoDbMappedBean>> entities = data
-                .stream()
-                .collect(groupingBy(g -> (Class<DynamoDbMappedBean>) g.getClass()));
-        List<WriteBatch> batchWrites = entities
-                .entrySet()
-                .stream()
-                .map(e -> loadBatchForEntity(e.getValue(), e.getKey())).collect(toList());
+    public List<Person> findPeople(int totalSegments, int limit) {
+        try (Stream<Person> people = streamPeople(totalSegments)) {
+            return topK(people, limit, PEOPLE_BY_NAME);
+        }
+    }
 
-        CompletableFuture<BatchWriteResult> asyncResult = getEnhancedUnversionedDynamoClient()
-                .batchWriteItem(b -> b.writeBatches(batchWrites));
+    public Stream<Person> streamPeople() {
+        return streamFromPublisher(async.scanPages());
+    }
 
-        BatchWriteResult result = asyncResult.join();
+    public Stream<Person> streamPeople(int totalSegments) {
+        return PageStream.subscribe(subscriberConfig, async.scanSegments(totalSegments)).stream();
+    }
 
-        entities.keySet().forEach(beanClass -> validateBatchWrite(result, beanClass));
+    @SafeVarargs
+    public final BulkLoadStatistics load(List<? extends DynamoDbMappedBean>... dataLists) {
+        return load(Stream.of(dataLists).<DynamoDbMappedBean>flatMap(List::stream).iterator());
     }
 
-    private <T extends DynamoDbMappedBean> void validateBatchWrite(BatchWriteResult result, Class<T> beanClass) {
-        DynamoDbAsyncTable<T> table = getDynamoTable(getEnhancedUnversionedDynamoClient(), beanClass);
-        if (result.unprocessedPutItemsForTable(table).size() > 0) {
-            throw new IllegalStateException("DynamoDb query failed to write all content");
-        }
+    public BulkLoadStatistics load(Iterator<? extends DynamoDbMappedBean> items) {
+        return async.bulkLoader().load(items);
     }
 
-    private <T extends DynamoDbMappedBean> WriteBatch loadBatchForEntity(List<T> entities, Class<T> beanClass) {
-        DynamoDbAsyncTable<T> table = getDynamoTable(getEnhancedUnversionedDynamoClient(), beanClass);
+    public <T extends DynamoDbMappedBean> BulkLoadStatistics load(Publisher<T> items) {
+        return async.bulkLoader().load(items);
+    }
 
-        WriteBatch.Builder<T> batch = WriteBatch.builder(beanClass).mappedTableResource(table);
-        entities.forEach(e -> batch.addPutItem((T) e));
-        return batch.build();
+    public ExportStatistics exportTo(Path directory, int totalSegments) throws IOException {
+        TableExporter exporter = new TableExporter(subscriberConfig);
+        return exporter.export(Person.class, directory, totalSegments)
+                .plus(exporter.export(Fact.class, directory, totalSegments));
     }
 
-    public void updateEntities(List<? extends DynamoDbMappedBean> entities) {
-        CompletableFuture<Void> update = getEnhancedDynamoClient().transactWriteItems(t -> entities
-                .forEach(e -> addUpdateForEntity(t, e)));
-        update.join();
-        entities.forEach(e -> e.setVersion(e.getVersion() + 1));
+    public BulkLoadStatistics importFrom(Path directory) throws IOException {
+        TableImporter importer = new TableImporter(async.bulkLoader());
+        return importer.importFrom(Person.class, directory)
+                .plus(importer.importFrom(Fact.class, directory));
     }
 
-    private <T extends DynamoDbMappedBean> void addUpdateForEntity(TransactWriteItemsEnhancedRequest.Builder builder, T entity) {
-        Class<T> beanClass = (Class<T>) entity.getClass();
-        UpdateItemEnhancedRequest<T> updateRequest = UpdateItemEnhancedRequest.builder(beanClass).item(entity).build();
-        builder.addUpdateItem(getDynamoTable(beanClass), updateRequest);
+    public UpdateStatistics updateEntities(List<? extends DynamoDbMappedBean> entities) {
+        return async.updateEntities(entities).join();
     }
 }
@@ -0,0 +1,26 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.dynamo.TraversalConfig;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class DynamoRepositoryConfig {
+    @Builder.Default
+    SubscriberConfig subscriberConfig = SubscriberConfig.defaults();
+    @Builder.Default
+    BulkLoadConfig bulkLoadConfig = BulkLoadConfig.defaults();
+    @Builder.Default
+    UpdateConfig updateConfig = UpdateConfig.defaults();
+    @Builder.Default
+    TraversalConfig traversalConfig = TraversalConfig.defaults();
+    @Builder.Default
+    CacheConfig personCacheConfig = CacheConfig.disabled();
+    @Builder.Default
+    boolean coalesceLookups = true;
+
+    public static DynamoRepositoryConfig defaults() {
+        return DynamoRepositoryConfig.builder().build();
+    }
+}
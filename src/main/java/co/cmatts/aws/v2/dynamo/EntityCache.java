@@ -0,0 +1,114 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.v2.dynamo.model.DynamoDbMappedBean;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+public class EntityCache<K, V extends DynamoDbMappedBean> {
+
+    private final CacheConfig config;
+    private final UnaryOperator<V> copier;
+    private final Map<K, Entry<V>> entries;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public EntityCache(CacheConfig config, UnaryOperator<V> copier) {
+        this.config = config;
+        this.copier = copier;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > config.getMaximumSize()) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public boolean isEnabled() {
+        return config.isEnabled();
+    }
+
+    public Optional<V> get(K key) {
+        if (!isEnabled()) {
+            return Optional.empty();
+        }
+
+        Entry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry == null || entry.isExpired()) {
+                if (entry != null) {
+                    entries.remove(key);
+                    evictions++;
+                }
+                misses++;
+                return Optional.empty();
+            }
+            hits++;
+        }
+        return Optional.of(copier.apply(entry.value));
+    }
+
+    public void put(K key, V value) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        V copy = copier.apply(value);
+        synchronized (entries) {
+            Entry<V> existing = entries.get(key);
+            if (existing != null && !existing.isExpired() && isNewer(existing.value, copy)) {
+                return;
+            }
+            entries.put(key, new Entry<>(copy, System.nanoTime() + config.getTtl().toNanos()));
+        }
+    }
+
+    public void invalidate(K key) {
+        if (!isEnabled()) {
+            return;
+        }
+
+        synchronized (entries) {
+            entries.remove(key);
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    public CacheStatistics statistics() {
+        synchronized (entries) {
+            return new CacheStatistics(hits, misses, evictions, entries.size());
+        }
+    }
+
+    private boolean isNewer(V cached, V candidate) {
+        return cached.getVersion() != null && candidate.getVersion() != null &&
+                cached.getVersion() > candidate.getVersion();
+    }
+
+    private static class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+
+        private Entry(V value, long expiresAt) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired() {
+            return System.nanoTime() - expiresAt >= 0;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package co.cmatts.aws.v2.dynamo;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+public class ExportStatistics {
+    long itemsWritten;
+    long filesWritten;
+    long bytesWritten;
+    Duration elapsed;
+
+    public double itemsPerSecond() {
+        if (elapsed.isZero()) {
+            return 0.0;
+        }
+        return itemsWritten * 1000.0 / Math.max(1L, elapsed.toMillis());
+    }
+
+    public ExportStatistics plus(ExportStatistics other) {
+        return new ExportStatistics(itemsWritten + other.itemsWritten, filesWritten + other.filesWritten,
+                bytesWritten + other.bytesWritten, elapsed.plus(other.elapsed));
+    }
+}
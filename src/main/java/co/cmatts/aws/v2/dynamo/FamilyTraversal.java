@@ -0,0 +1,130 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.dynamo.TraversalConfig;
+import co.cmatts.aws.v2.dynamo.model.Person;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.stream.Collectors.toList;
+
+public class FamilyTraversal {
+    private static final Comparator<Person> BY_ID = Comparator.comparing(Person::getId);
+
+    private final TraversalConfig config;
+    private final Function<List<Integer>, CompletableFuture<List<Person>>> peopleById;
+    private final Function<Integer, CompletableFuture<List<Person>>> childrenOf;
+
+    public FamilyTraversal(TraversalConfig config,
+                           Function<List<Integer>, CompletableFuture<List<Person>>> peopleById,
+                           Function<Integer, CompletableFuture<List<Person>>> childrenOf) {
+        if (config.getMaxDepth() < 1) {
+            throw new IllegalArgumentException("A traversal needs a maximum depth of at least 1");
+        }
+        if (config.getMaxFanOut() < 1) {
+            throw new IllegalArgumentException("A traversal needs a fan-out of at least 1");
+        }
+        if (config.getMaxConcurrentQueries() < 1) {
+            throw new IllegalArgumentException("A traversal needs at least one query in flight");
+        }
+        this.config = config;
+        this.peopleById = peopleById;
+        this.childrenOf = childrenOf;
+    }
+
+    public CompletableFuture<List<List<Person>>> ancestors(Person person, int depth) {
+        checkDepth(depth);
+        Set<Integer> visited = new HashSet<>(List.of(person.getId()));
+        return ancestors(List.of(person), depth, visited, new ArrayList<>());
+    }
+
+    private CompletableFuture<List<List<Person>>> ancestors(List<Person> generation, int remaining, Set<Integer> visited,
+                                                            List<List<Person>> generations) {
+        List<Integer> parentIds = unvisited(generation.stream()
+                .flatMap(p -> Stream.of(p.getFatherId(), p.getMotherId())), visited);
+        if (remaining == 0 || parentIds.isEmpty()) {
+            return completedFuture(generations);
+        }
+
+        return peopleById.apply(parentIds).thenCompose(parents -> {
+            if (parents.isEmpty()) {
+                return completedFuture(generations);
+            }
+            List<Person> sorted = parents.stream().sorted(BY_ID).collect(toList());
+            generations.add(sorted);
+            return ancestors(sorted, remaining - 1, visited, generations);
+        });
+    }
+
+    public CompletableFuture<List<List<Person>>> descendants(Integer id, int depth) {
+        checkDepth(depth);
+        Set<Integer> visited = new HashSet<>(List.of(id));
+        return descendants(List.of(id), depth, visited, new ArrayList<>());
+    }
+
+    private CompletableFuture<List<List<Person>>> descendants(List<Integer> parentIds, int remaining, Set<Integer> visited,
+                                                              List<List<Person>> generations) {
+        if (remaining == 0 || parentIds.isEmpty()) {
+            return completedFuture(generations);
+        }
+
+        return childrenOfAll(parentIds).thenCompose(children -> {
+            Map<Integer, Person> byId = new HashMap<>();
+            children.forEach(child -> byId.putIfAbsent(child.getId(), child));
+            List<Integer> childIds = unvisited(byId.keySet().stream().sorted(), visited);
+            if (childIds.isEmpty()) {
+                return completedFuture(generations);
+            }
+            generations.add(childIds.stream().map(byId::get).collect(toList()));
+            return descendants(childIds, remaining - 1, visited, generations);
+        });
+    }
+
+    private CompletableFuture<List<Person>> childrenOfAll(List<Integer> parentIds) {
+        Iterator<Integer> pending = parentIds.iterator();
+        List<Person> children = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<?>[] lanes = IntStream.range(0, Math.min(config.getMaxConcurrentQueries(), parentIds.size()))
+                .mapToObj(lane -> childrenOfRemaining(pending, children))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(lanes).thenApply(v -> new ArrayList<>(children));
+    }
+
+    private CompletableFuture<Void> childrenOfRemaining(Iterator<Integer> pending, List<Person> children) {
+        Integer parentId;
+        synchronized (pending) {
+            if (!pending.hasNext()) {
+                return completedFuture(null);
+            }
+            parentId = pending.next();
+        }
+        return childrenOf.apply(parentId)
+                .thenCompose(found -> {
+                    children.addAll(found);
+                    return childrenOfRemaining(pending, children);
+                });
+    }
+
+    private List<Integer> unvisited(Stream<Integer> ids, Set<Integer> visited) {
+        List<Integer> next = new ArrayList<>();
+        Iterator<Integer> candidates = ids.filter(Objects::nonNull).iterator();
+        while (candidates.hasNext() && next.size() < config.getMaxFanOut()) {
+            Integer id = candidates.next();
+            if (visited.add(id)) {
+                next.add(id);
+            }
+        }
+        return next;
+    }
+
+    void checkDepth(int depth) {
+        if (depth < 1 || depth > config.getMaxDepth()) {
+            throw new IllegalArgumentException("A traversal depth must be between 1 and " + config.getMaxDepth());
+        }
+    }
+}
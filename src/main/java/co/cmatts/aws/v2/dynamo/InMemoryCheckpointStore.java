@@ -0,0 +1,28 @@
+package co.cmatts.aws.v2.dynamo;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class InMemoryCheckpointStore implements CheckpointStore {
+
+    private final Map<String, String> checkpoints = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<String> checkpoint(String streamArn, String shardId) {
+        return Optional.ofNullable(checkpoints.get(key(streamArn, shardId)));
+    }
+
+    @Override
+    public void checkpoint(String streamArn, String shardId, String sequenceNumber) {
+        checkpoints.put(key(streamArn, shardId), sequenceNumber);
+    }
+
+    public int size() {
+        return checkpoints.size();
+    }
+
+    private static String key(String streamArn, String shardId) {
+        return streamArn + "/" + shardId;
+    }
+}
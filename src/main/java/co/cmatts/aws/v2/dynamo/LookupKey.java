@@ -0,0 +1,10 @@
+package co.cmatts.aws.v2.dynamo;
+
+import lombok.Value;
+
+@Value
+public class LookupKey {
+    String tableName;
+    String indexName;
+    Object partitionValue;
+}
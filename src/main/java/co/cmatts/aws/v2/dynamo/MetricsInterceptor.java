@@ -0,0 +1,249 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.metrics.MetricsSink;
+import co.cmatts.aws.metrics.OperationMetrics;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.SdkResponse;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttribute;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.core.interceptor.SdkExecutionAttribute;
+import software.amazon.awssdk.services.dynamodb.model.*;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.joining;
+
+public class MetricsInterceptor implements ExecutionInterceptor {
+
+    private static final ExecutionAttribute<Long> START = new ExecutionAttribute<>("MetricsStart");
+    private static final ExecutionAttribute<AtomicInteger> ATTEMPTS = new ExecutionAttribute<>("MetricsAttempts");
+
+    @Override
+    public void beforeExecution(Context.BeforeExecution context, ExecutionAttributes executionAttributes) {
+        executionAttributes.putAttribute(START, System.nanoTime());
+        executionAttributes.putAttribute(ATTEMPTS, new AtomicInteger());
+    }
+
+    @Override
+    public SdkRequest modifyRequest(Context.ModifyRequest context, ExecutionAttributes executionAttributes) {
+        SdkRequest request = context.request();
+        if (Dynamo.getMetricsSink() == MetricsSink.NONE) {
+            return request;
+        }
+
+        if (request instanceof GetItemRequest && ((GetItemRequest) request).returnConsumedCapacity() == null) {
+            return ((GetItemRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof QueryRequest && ((QueryRequest) request).returnConsumedCapacity() == null) {
+            return ((QueryRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof ScanRequest && ((ScanRequest) request).returnConsumedCapacity() == null) {
+            return ((ScanRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof BatchGetItemRequest && ((BatchGetItemRequest) request).returnConsumedCapacity() == null) {
+            return ((BatchGetItemRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof BatchWriteItemRequest && ((BatchWriteItemRequest) request).returnConsumedCapacity() == null) {
+            return ((BatchWriteItemRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof TransactWriteItemsRequest && ((TransactWriteItemsRequest) request).returnConsumedCapacity() == null) {
+            return ((TransactWriteItemsRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof PutItemRequest && ((PutItemRequest) request).returnConsumedCapacity() == null) {
+            return ((PutItemRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof UpdateItemRequest && ((UpdateItemRequest) request).returnConsumedCapacity() == null) {
+            return ((UpdateItemRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        if (request instanceof DeleteItemRequest && ((DeleteItemRequest) request).returnConsumedCapacity() == null) {
+            return ((DeleteItemRequest) request).toBuilder().returnConsumedCapacity(ReturnConsumedCapacity.TOTAL).build();
+        }
+        return request;
+    }
+
+    @Override
+    public void beforeTransmission(Context.BeforeTransmission context, ExecutionAttributes executionAttributes) {
+        AtomicInteger attempts = executionAttributes.getAttribute(ATTEMPTS);
+        if (attempts != null) {
+            attempts.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void afterExecution(Context.AfterExecution context, ExecutionAttributes executionAttributes) {
+        publish(context.request(), context.response(), executionAttributes, false);
+    }
+
+    @Override
+    public void onExecutionFailure(Context.FailedExecution context, ExecutionAttributes executionAttributes) {
+        publish(context.request(), context.response().orElse(null), executionAttributes, true);
+    }
+
+    private static void publish(SdkRequest request, SdkResponse response, ExecutionAttributes executionAttributes, boolean failed) {
+        MetricsSink sink = Dynamo.getMetricsSink();
+        Long start = executionAttributes.getAttribute(START);
+        if (sink == MetricsSink.NONE || start == null) {
+            return;
+        }
+
+        String operation = executionAttributes.getAttribute(SdkExecutionAttribute.OPERATION_NAME);
+        double consumed = consumedCapacity(response).stream()
+                .map(ConsumedCapacity::capacityUnits)
+                .filter(Objects::nonNull)
+                .mapToDouble(Double::doubleValue)
+                .sum();
+        boolean read = isRead(request);
+
+        sink.record(OperationMetrics.builder()
+                .operation(operation)
+                .tableName(tableName(request))
+                .indexName(indexName(request))
+                .latency(Duration.ofNanos(System.nanoTime() - start))
+                .consumedReadUnits(read ? consumed : 0.0)
+                .consumedWriteUnits(read ? 0.0 : consumed)
+                .items(failed ? 0 : items(request, response))
+                .attempts(Math.max(1, executionAttributes.getAttribute(ATTEMPTS).get()))
+                .failed(failed)
+                .build());
+    }
+
+    private static boolean isRead(SdkRequest request) {
+        return request instanceof GetItemRequest
+                || request instanceof QueryRequest
+                || request instanceof ScanRequest
+                || request instanceof BatchGetItemRequest
+                || request instanceof TransactGetItemsRequest;
+    }
+
+    private static String tableName(SdkRequest request) {
+        if (request instanceof GetItemRequest) {
+            return ((GetItemRequest) request).tableName();
+        }
+        if (request instanceof QueryRequest) {
+            return ((QueryRequest) request).tableName();
+        }
+        if (request instanceof ScanRequest) {
+            return ((ScanRequest) request).tableName();
+        }
+        if (request instanceof PutItemRequest) {
+            return ((PutItemRequest) request).tableName();
+        }
+        if (request instanceof UpdateItemRequest) {
+            return ((UpdateItemRequest) request).tableName();
+        }
+        if (request instanceof DeleteItemRequest) {
+            return ((DeleteItemRequest) request).tableName();
+        }
+        if (request instanceof BatchGetItemRequest) {
+            return joined(((BatchGetItemRequest) request).requestItems().keySet().stream());
+        }
+        if (request instanceof BatchWriteItemRequest) {
+            return joined(((BatchWriteItemRequest) request).requestItems().keySet().stream());
+        }
+        if (request instanceof TransactWriteItemsRequest) {
+            return joined(((TransactWriteItemsRequest) request).transactItems().stream()
+                    .map(MetricsInterceptor::tableName));
+        }
+        return null;
+    }
+
+    private static String tableName(TransactWriteItem item) {
+        if (item.put() != null) {
+            return item.put().tableName();
+        }
+        if (item.update() != null) {
+            return item.update().tableName();
+        }
+        if (item.delete() != null) {
+            return item.delete().tableName();
+        }
+        return item.conditionCheck() == null ? null : item.conditionCheck().tableName();
+    }
+
+    private static String joined(Stream<String> tableNames) {
+        return tableNames.filter(Objects::nonNull).distinct().sorted().collect(joining(","));
+    }
+
+    private static String indexName(SdkRequest request) {
+        if (request instanceof QueryRequest) {
+            return ((QueryRequest) request).indexName();
+        }
+        if (request instanceof ScanRequest) {
+            return ((ScanRequest) request).indexName();
+        }
+        return null;
+    }
+
+    private static List<ConsumedCapacity> consumedCapacity(SdkResponse response) {
+        if (response instanceof GetItemResponse) {
+            return single(((GetItemResponse) response).consumedCapacity());
+        }
+        if (response instanceof QueryResponse) {
+            return single(((QueryResponse) response).consumedCapacity());
+        }
+        if (response instanceof ScanResponse) {
+            return single(((ScanResponse) response).consumedCapacity());
+        }
+        if (response instanceof PutItemResponse) {
+            return single(((PutItemResponse) response).consumedCapacity());
+        }
+        if (response instanceof UpdateItemResponse) {
+            return single(((UpdateItemResponse) response).consumedCapacity());
+        }
+        if (response instanceof DeleteItemResponse) {
+            return single(((DeleteItemResponse) response).consumedCapacity());
+        }
+        if (response instanceof BatchGetItemResponse) {
+            return ((BatchGetItemResponse) response).consumedCapacity();
+        }
+        if (response instanceof BatchWriteItemResponse) {
+            return ((BatchWriteItemResponse) response).consumedCapacity();
+        }
+        if (response instanceof TransactWriteItemsResponse) {
+            return ((TransactWriteItemsResponse) response).consumedCapacity();
+        }
+        return emptyList();
+    }
+
+    private static List<ConsumedCapacity> single(ConsumedCapacity capacity) {
+        return capacity == null ? emptyList() : List.of(capacity);
+    }
+
+    private static int items(SdkRequest request, SdkResponse response) {
+        if (response instanceof QueryResponse) {
+            return ((QueryResponse) response).count();
+        }
+        if (response instanceof ScanResponse) {
+            return ((ScanResponse) response).count();
+        }
+        if (response instanceof GetItemResponse) {
+            return ((GetItemResponse) response).hasItem() ? 1 : 0;
+        }
+        if (response instanceof BatchGetItemResponse) {
+            return ((BatchGetItemResponse) response).responses().values().stream().mapToInt(List::size).sum();
+        }
+        if (response instanceof BatchWriteItemResponse && request instanceof BatchWriteItemRequest) {
+            return count(((BatchWriteItemRequest) request).requestItems().values())
+                    - count(((BatchWriteItemResponse) response).unprocessedItems().values());
+        }
+        if (request instanceof TransactWriteItemsRequest) {
+            return ((TransactWriteItemsRequest) request).transactItems().size();
+        }
+        if (request instanceof PutItemRequest || request instanceof UpdateItemRequest || request instanceof DeleteItemRequest) {
+            return 1;
+        }
+        return 0;
+    }
+
+    private static int count(Collection<? extends List<?>> lists) {
+        return lists.stream().mapToInt(List::size).sum();
+    }
+}
@@ -0,0 +1,158 @@
+package co.cmatts.aws.v2.dynamo;
+
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+
+public class PageStream<T> implements Iterator<T> {
+    private static final Object COMPLETE = new Object();
+
+    private final SubscriberConfig config;
+    private final BlockingQueue<Object> signals;
+    private final List<SourceSubscriber> sources;
+    private Iterator<T> currentPage = Collections.emptyIterator();
+    private int activeSources;
+    private volatile boolean done = false;
+    private volatile IllegalStateException overflow;
+
+    private PageStream(SubscriberConfig config, int sourceCount) {
+        this.config = config;
+        this.signals = new ArrayBlockingQueue<>(Math.max(1, sourceCount * (config.getPrefetch() + 1)));
+        this.sources = Stream.generate(SourceSubscriber::new).limit(sourceCount).collect(toList());
+        this.activeSources = sourceCount;
+    }
+
+    public static <T> PageStream<T> subscribe(SubscriberConfig config, SdkPublisher<Page<T>> publisher) {
+        return subscribe(config, List.of(publisher));
+    }
+
+    public static <T> PageStream<T> subscribe(SubscriberConfig config,
+                                              List<? extends SdkPublisher<Page<T>>> publishers) {
+        PageStream<T> pageStream = new PageStream<>(config, publishers.size());
+        for (int i = 0; i < publishers.size(); i++) {
+            publishers.get(i).subscribe(pageStream.sources.get(i));
+        }
+        return pageStream;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!currentPage.hasNext()) {
+            if (done || activeSources == 0) {
+                return false;
+            }
+            nextPage();
+        }
+        return true;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return currentPage.next();
+    }
+
+    public void cancel() {
+        done = true;
+        sources.forEach(SourceSubscriber::cancel);
+    }
+
+    public Stream<T> stream() {
+        return StreamSupport
+                .stream(Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(this::cancel);
+    }
+
+    private void nextPage() {
+        Object signal = awaitSignal();
+        if (signal == COMPLETE) {
+            activeSources--;
+            return;
+        }
+        if (signal instanceof Throwable) {
+            cancel();
+            throw new IllegalStateException("DynamoDb query failed with an error", (Throwable) signal);
+        }
+
+        SourcePage sourcePage = (SourcePage) signal;
+        currentPage = sourcePage.page.items().iterator();
+        sourcePage.source.request(1);
+    }
+
+    private Object awaitSignal() {
+        if (overflow != null) {
+            cancel();
+            throw overflow;
+        }
+
+        Object signal;
+        try {
+            signal = signals.poll(config.getTimeout().toMillis(), MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw new RuntimeException(e);
+        }
+
+        if (signal == null) {
+            cancel();
+            throw new IllegalStateException("DynamoDb query failed to get the next page within " +
+                    config.getTimeout());
+        }
+        return signal;
+    }
+
+    private class SourcePage {
+        private final SourceSubscriber source;
+        private final Page<T> page;
+
+        private SourcePage(SourceSubscriber source, Page<T> page) {
+            this.source = source;
+            this.page = page;
+        }
+    }
+
+    private class SourceSubscriber extends BoundedSubscriber<Page<T>> {
+
+        private SourceSubscriber() {
+            super(config);
+        }
+
+        @Override
+        public void onNext(Page<T> page) {
+            signal(new SourcePage(this, page));
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            signal(throwable);
+        }
+
+        @Override
+        public void onComplete() {
+            signal(COMPLETE);
+        }
+
+        private void signal(Object signal) {
+            if (!signals.offer(signal)) {
+                overflow = new IllegalStateException("DynamoDb publisher sent more pages than were requested");
+                cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package co.cmatts.aws.v2.dynamo;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+public class SingleFlight<K> {
+
+    private final ConcurrentMap<K, CompletableFuture<?>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public <V> CompletableFuture<V> execute(K key, Supplier<CompletableFuture<V>> call, UnaryOperator<V> copier) {
+        CompletableFuture<V> promise = new CompletableFuture<>();
+        CompletableFuture<V> existing = (CompletableFuture<V>) inFlight.putIfAbsent(key, promise);
+        if (existing != null) {
+            coalesced.incrementAndGet();
+            return existing.thenApply(copier);
+        }
+
+        try {
+            call.get().whenComplete((result, error) -> {
+                inFlight.remove(key, promise);
+                if (error != null) {
+                    promise.completeExceptionally(error);
+                } else {
+                    promise.complete(result);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, promise);
+            promise.completeExceptionally(e);
+        }
+        return promise;
+    }
+
+    public long coalescedCalls() {
+        return coalesced.get();
+    }
+
+    public int inFlightCalls() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,181 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.dynamo.TableRateLimiters;
+import co.cmatts.aws.v2.dynamo.model.Fact;
+import co.cmatts.aws.v2.dynamo.model.GenealogyItem;
+import co.cmatts.aws.v2.dynamo.model.Person;
+import co.cmatts.aws.v2.dynamo.model.PersonWithFacts;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static co.cmatts.aws.v2.dynamo.Dynamo.closeDynamoClient;
+import static co.cmatts.aws.v2.dynamo.Dynamo.getDynamoTable;
+import static co.cmatts.aws.v2.dynamo.Dynamo.getEnhancedUnversionedDynamoClient;
+import static co.cmatts.aws.v2.dynamo.Dynamo.newDynamoDbClient;
+import static co.cmatts.aws.v2.dynamo.Dynamo.newEnhancedUnversionedDynamoClient;
+import static co.cmatts.aws.v2.dynamo.model.GenealogyItem.FACT_PREFIX;
+import static co.cmatts.aws.v2.dynamo.model.GenealogyItem.factKey;
+import static co.cmatts.aws.v2.dynamo.model.GenealogyItem.personKey;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
+import static software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional.keyEqualTo;
+import static software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional.sortBeginsWith;
+
+public class SingleTableRepository implements AutoCloseable {
+
+    static final String INVERTED_INDEX = "invertedIndex";
+    static final String FATHER_INDEX = "fatherIndex";
+    static final String MOTHER_INDEX = "motherIndex";
+
+    private final DynamoRepositoryConfig config;
+    private final SubscriberConfig subscriberConfig;
+    private final TableRateLimiters rateLimiters;
+    private final DynamoDbAsyncClient throttledClient;
+    private final DynamoDbEnhancedAsyncClient bulkLoadClient;
+
+    public SingleTableRepository() {
+        this(DynamoRepositoryConfig.defaults());
+    }
+
+    public SingleTableRepository(DynamoRepositoryConfig config) {
+        this.config = config;
+        this.subscriberConfig = config.getSubscriberConfig();
+        this.rateLimiters = new TableRateLimiters(config.getBulkLoadConfig().getThrottleConfig());
+        this.throttledClient = rateLimiters.isEnabled() ? newDynamoDbClient(rateLimiters) : null;
+        this.bulkLoadClient = throttledClient == null
+                ? getEnhancedUnversionedDynamoClient()
+                : newEnhancedUnversionedDynamoClient(throttledClient);
+    }
+
+    @Override
+    public void close() {
+        if (throttledClient != null) {
+            closeDynamoClient(bulkLoadClient, throttledClient);
+        }
+    }
+
+    public Optional<Person> findPerson(Integer id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        Key key = Key.builder().partitionValue(personKey(id)).sortValue(personKey(id)).build();
+        return Optional.ofNullable(table().getItem(r -> r.key(key).consistentRead(true)).join())
+                .map(GenealogyItem::toPerson);
+    }
+
+    public List<Fact> findFacts(Integer id) {
+        if (id == null) {
+            return emptyList();
+        }
+
+        return query(sortBeginsWith(k -> k.partitionValue(personKey(id)).sortValue(FACT_PREFIX)))
+                .map(GenealogyItem::toFact)
+                .collect(toList());
+    }
+
+    public Optional<PersonWithFacts> findPersonWithFacts(Integer id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        List<GenealogyItem> items = query(keyEqualTo(k -> k.partitionValue(personKey(id)))).collect(toList());
+        return items.stream()
+                .filter(GenealogyItem::isPerson)
+                .findFirst()
+                .map(person -> new PersonWithFacts(person.toPerson(), items.stream()
+                        .filter(GenealogyItem::isFact)
+                        .map(GenealogyItem::toFact)
+                        .collect(toList())));
+    }
+
+    public Optional<Fact> findFact(Integer id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+
+        return queryIndex(INVERTED_INDEX, factKey(id))
+                .findFirst()
+                .map(GenealogyItem::toFact);
+    }
+
+    public List<Person> findPersonByFather(Integer id) {
+        return findPeopleByParent(FATHER_INDEX, id);
+    }
+
+    public List<Person> findPersonByMother(Integer id) {
+        return findPeopleByParent(MOTHER_INDEX, id);
+    }
+
+    private List<Person> findPeopleByParent(String index, Integer id) {
+        if (id == null) {
+            return emptyList();
+        }
+
+        return queryIndex(index, personKey(id))
+                .map(GenealogyItem::toPerson)
+                .collect(toList());
+    }
+
+    public BulkLoadStatistics load(List<Person> people, List<Fact> facts) {
+        return bulkLoader().load(Stream.concat(
+                        people.stream().map(GenealogyItem::fromPerson),
+                        facts.stream().map(GenealogyItem::fromFact))
+                .iterator());
+    }
+
+    public BulkLoadStatistics migrate() {
+        SdkPublisher<GenealogyItem> people = getDynamoTable(Person.class)
+                .scan(r -> r.consistentRead(true))
+                .items()
+                .map(GenealogyItem::fromPerson);
+        SdkPublisher<GenealogyItem> facts = getDynamoTable(Fact.class)
+                .scan(r -> r.consistentRead(true))
+                .items()
+                .map(GenealogyItem::fromFact);
+
+        BulkLoader loader = bulkLoader();
+        return loader.load(people).plus(loader.load(facts));
+    }
+
+    private BulkLoader bulkLoader() {
+        return new BulkLoader(bulkLoadClient, config.getBulkLoadConfig(), rateLimiters, item -> { });
+    }
+
+    private Stream<GenealogyItem> query(QueryConditional queryConditional) {
+        return collect(table().query(QueryEnhancedRequest.builder()
+                .consistentRead(true)
+                .queryConditional(queryConditional)
+                .build()));
+    }
+
+    private Stream<GenealogyItem> queryIndex(String index, String key) {
+        return collect(table().index(index).query(QueryEnhancedRequest.builder()
+                .consistentRead(false)
+                .queryConditional(keyEqualTo(k -> k.partitionValue(key)))
+                .build()));
+    }
+
+    private Stream<GenealogyItem> collect(SdkPublisher<Page<GenealogyItem>> publisher) {
+        CollectingSubscriber<Page<GenealogyItem>> subscriber = new CollectingSubscriber<>(subscriberConfig);
+        publisher.subscribe(subscriber);
+
+        return subscriber.await().stream()
+                .map(Page::items)
+                .flatMap(List::stream);
+    }
+
+    private static DynamoDbAsyncTable<GenealogyItem> table() {
+        return getDynamoTable(GenealogyItem.class);
+    }
+}
@@ -0,0 +1,27 @@
+package co.cmatts.aws.v2.dynamo;
+
+import lombok.Builder;
+import lombok.Value;
+import software.amazon.awssdk.services.dynamodb.model.ShardIteratorType;
+
+import java.time.Duration;
+import java.util.function.Consumer;
+
+@Value
+@Builder
+public class StreamConfig {
+    @Builder.Default
+    Duration pollInterval = Duration.ofSeconds(1L);
+    @Builder.Default
+    int batchSize = 1000;
+    @Builder.Default
+    ShardIteratorType initialPosition = ShardIteratorType.TRIM_HORIZON;
+    @Builder.Default
+    boolean restartingTrimmedShards = false;
+    @Builder.Default
+    Consumer<Throwable> errorListener = error -> { };
+
+    public static StreamConfig defaults() {
+        return StreamConfig.builder().build();
+    }
+}
@@ -0,0 +1,19 @@
+package co.cmatts.aws.v2.dynamo;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+@Builder
+public class SubscriberConfig {
+    @Builder.Default
+    int prefetch = 2;
+    @Builder.Default
+    Duration timeout = Duration.ofMillis(5000L);
+
+    public static SubscriberConfig defaults() {
+        return SubscriberConfig.builder().build();
+    }
+}
@@ -0,0 +1,116 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.v2.dynamo.model.DynamoDbMappedBean;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.model.ScanEnhancedRequest;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+import static co.cmatts.aws.v2.dynamo.Dynamo.getDynamoTable;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.stream.Collectors.toList;
+
+public class TableExporter {
+    static final String FILE_SUFFIX = ".ndjson.gz";
+    static final int BUFFER_SIZE = 64 * 1024;
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private final SubscriberConfig subscriberConfig;
+
+    public TableExporter() {
+        this(SubscriberConfig.defaults());
+    }
+
+    public TableExporter(SubscriberConfig subscriberConfig) {
+        this.subscriberConfig = subscriberConfig;
+    }
+
+    static String fileName(String tableName, int segment) {
+        return tableName + "-" + segment + FILE_SUFFIX;
+    }
+
+    public <T extends DynamoDbMappedBean> ExportStatistics export(Class<T> beanClass, Path directory, int totalSegments) throws IOException {
+        if (totalSegments < 1) {
+            throw new IllegalArgumentException("A parallel scan needs at least one segment");
+        }
+
+        DynamoDbAsyncTable<T> table = getDynamoTable(beanClass);
+        Files.createDirectories(directory);
+        ExecutorService executor = Executors.newFixedThreadPool(totalSegments, r -> {
+            Thread thread = new Thread(r, "dynamo-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        long start = System.nanoTime();
+        try {
+            List<CompletableFuture<ExportStatistics>> segments = IntStream.range(0, totalSegments)
+                    .mapToObj(segment -> CompletableFuture.supplyAsync(() -> exportSegment(table, segment, totalSegments,
+                            directory.resolve(fileName(table.tableName(), segment))), executor))
+                    .collect(toList());
+
+            long items = 0L;
+            long bytes = 0L;
+            for (CompletableFuture<ExportStatistics> segment : segments) {
+                ExportStatistics statistics = segment.join();
+                items += statistics.getItemsWritten();
+                bytes += statistics.getBytesWritten();
+            }
+            return new ExportStatistics(items, totalSegments, bytes, Duration.ofNanos(System.nanoTime() - start));
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw new IllegalStateException("DynamoDb export failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private <T> ExportStatistics exportSegment(DynamoDbAsyncTable<T> table, int segment, int totalSegments, Path file) {
+        long start = System.nanoTime();
+        PageStream<T> items = PageStream.subscribe(subscriberConfig, table.scan(ScanEnhancedRequest.builder()
+                .segment(segment)
+                .totalSegments(totalSegments)
+                .build()));
+
+        long count = 0L;
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(file), BUFFER_SIZE), UTF_8), BUFFER_SIZE)) {
+            while (items.hasNext()) {
+                writer.write(OBJECT_MAPPER.writeValueAsString(items.next()));
+                writer.write('\n');
+                count++;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            items.cancel();
+        }
+
+        try {
+            return new ExportStatistics(count, 1L, Files.size(file), Duration.ofNanos(System.nanoTime() - start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
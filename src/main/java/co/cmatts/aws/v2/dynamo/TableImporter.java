@@ -0,0 +1,111 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.v2.dynamo.model.DynamoDbMappedBean;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.zip.GZIPInputStream;
+
+import static co.cmatts.aws.v2.dynamo.Dynamo.getDynamoTable;
+import static co.cmatts.aws.v2.dynamo.TableExporter.BUFFER_SIZE;
+import static co.cmatts.aws.v2.dynamo.TableExporter.FILE_SUFFIX;
+import static co.cmatts.aws.v2.dynamo.TableExporter.OBJECT_MAPPER;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+public class TableImporter {
+
+    private final BulkLoader bulkLoader;
+
+    public TableImporter(BulkLoader bulkLoader) {
+        this.bulkLoader = bulkLoader;
+    }
+
+    public <T extends DynamoDbMappedBean> BulkLoadStatistics importFrom(Class<T> beanClass, Path directory) throws IOException {
+        String tableName = getDynamoTable(beanClass).tableName();
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> matches = Files.newDirectoryStream(directory, tableName + "-*" + FILE_SUFFIX)) {
+            matches.forEach(files::add);
+        }
+        files.sort(null);
+        return importFrom(beanClass, files);
+    }
+
+    public <T extends DynamoDbMappedBean> BulkLoadStatistics importFrom(Class<T> beanClass, List<Path> files) throws IOException {
+        try (NdjsonIterator<T> items = new NdjsonIterator<>(beanClass, files)) {
+            return bulkLoader.load(items);
+        }
+    }
+
+    private static class NdjsonIterator<T> implements Iterator<T>, Closeable {
+        private final Class<T> beanClass;
+        private final Iterator<Path> files;
+        private BufferedReader reader;
+        private String nextLine;
+
+        private NdjsonIterator(Class<T> beanClass, List<Path> files) {
+            this.beanClass = beanClass;
+            this.files = files.iterator();
+        }
+
+        @Override
+        public boolean hasNext() {
+            try {
+                while (nextLine == null) {
+                    if (reader == null) {
+                        if (!files.hasNext()) {
+                            return false;
+                        }
+                        reader = open(files.next());
+                    }
+                    String line = reader.readLine();
+                    if (line == null) {
+                        reader.close();
+                        reader = null;
+                    } else if (!line.isBlank()) {
+                        nextLine = line;
+                    }
+                }
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String line = nextLine;
+            nextLine = null;
+            try {
+                return OBJECT_MAPPER.readValue(line, beanClass);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private static BufferedReader open(Path file) throws IOException {
+            return new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE), UTF_8), BUFFER_SIZE);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (reader != null) {
+                reader.close();
+                reader = null;
+            }
+        }
+    }
+}
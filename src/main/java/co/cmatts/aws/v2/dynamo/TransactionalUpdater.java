@@ -0,0 +1,234 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.v2.dynamo.model.DynamoDbMappedBean;
+import org.apache.commons.collections4.ListUtils;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.model.TransactWriteItemsEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.UpdateItemEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.CancellationReason;
+import software.amazon.awssdk.services.dynamodb.model.TransactionCanceledException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static co.cmatts.aws.v2.dynamo.Dynamo.getDynamoTable;
+import static java.util.stream.Collectors.toList;
+
+public class TransactionalUpdater {
+    private static final String NO_FAILURE = "None";
+    private static final String CONDITIONAL_CHECK_FAILED = "ConditionalCheckFailed";
+
+    private final DynamoDbEnhancedAsyncClient client;
+    private final UpdateConfig config;
+    private final Consumer<DynamoDbMappedBean> updateListener;
+    private final Consumer<DynamoDbMappedBean> failureListener;
+
+    public TransactionalUpdater(DynamoDbEnhancedAsyncClient client, UpdateConfig config) {
+        this(client, config, item -> { }, item -> { });
+    }
+
+    public TransactionalUpdater(DynamoDbEnhancedAsyncClient client, UpdateConfig config,
+                                Consumer<DynamoDbMappedBean> updateListener, Consumer<DynamoDbMappedBean> failureListener) {
+        if (config.getMaxTransactionSize() < 1 || config.getMaxTransactionSize() > 100) {
+            throw new IllegalArgumentException("A transaction must hold between 1 and 100 items");
+        }
+        if (config.getMaxConcurrentTransactions() < 1) {
+            throw new IllegalArgumentException("An update needs at least one transaction in flight");
+        }
+        this.client = client;
+        this.config = config;
+        this.updateListener = updateListener;
+        this.failureListener = failureListener;
+    }
+
+    public CompletableFuture<UpdateStatistics> update(List<? extends DynamoDbMappedBean> entities) {
+        Update update = new Update();
+        Iterator<List<DynamoDbMappedBean>> chunks = ListUtils
+                .partition(new ArrayList<DynamoDbMappedBean>(entities), config.getMaxTransactionSize())
+                .iterator();
+
+        CompletableFuture<?>[] lanes = IntStream.range(0, config.getMaxConcurrentTransactions())
+                .mapToObj(lane -> updateRemaining(update, chunks))
+                .toArray(CompletableFuture[]::new);
+
+        return CompletableFuture.allOf(lanes).thenCompose(v -> {
+            if (!update.hasFailed()) {
+                return CompletableFuture.completedFuture(update.statistics());
+            }
+
+            List<DynamoDbMappedBean> uncommitted = update.uncommitted(chunks);
+            uncommitted.forEach(failureListener);
+            UpdateStatistics statistics = update.statistics();
+            if (statistics.getItemsUpdated() == 0) {
+                return CompletableFuture.failedFuture(update.failure());
+            }
+            return CompletableFuture.failedFuture(
+                    new UpdateFailedException(statistics, uncommitted, update.failure()));
+        });
+    }
+
+    private CompletableFuture<Void> updateRemaining(Update update, Iterator<List<DynamoDbMappedBean>> chunks) {
+        List<DynamoDbMappedBean> chunk;
+        synchronized (chunks) {
+            if (update.hasFailed() || !chunks.hasNext()) {
+                return CompletableFuture.completedFuture(null);
+            }
+            chunk = chunks.next();
+        }
+        return update.transact(chunk, chunk, 0)
+                .exceptionally(error -> {
+                    update.failed(chunk, error);
+                    return null;
+                })
+                .thenCompose(v -> updateRemaining(update, chunks));
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+    }
+
+    private static TransactionCanceledException cancellation(Throwable error) {
+        Throwable cause = unwrap(error);
+        return cause instanceof TransactionCanceledException ? (TransactionCanceledException) cause : null;
+    }
+
+    private static <T extends DynamoDbMappedBean> void addUpdateForEntity(TransactWriteItemsEnhancedRequest.Builder builder, T entity) {
+        Class<T> beanClass = (Class<T>) entity.getClass();
+        UpdateItemEnhancedRequest<T> updateRequest = UpdateItemEnhancedRequest.builder(beanClass).item(entity).build();
+        builder.addUpdateItem(getDynamoTable(beanClass), updateRequest);
+    }
+
+    private static <T extends DynamoDbMappedBean> CompletableFuture<T> readCurrent(T entity) {
+        DynamoDbAsyncTable<T> table = getDynamoTable((Class<T>) entity.getClass());
+        return table.getItem(r -> r.key(table.keyFrom(entity)).consistentRead(true));
+    }
+
+    private class Update {
+        private final long started = System.nanoTime();
+        private final AtomicLong itemsUpdated = new AtomicLong();
+        private final AtomicLong itemsAttempted = new AtomicLong();
+        private final AtomicLong transactions = new AtomicLong();
+        private final AtomicLong conflicts = new AtomicLong();
+        private final AtomicLong retries = new AtomicLong();
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final List<DynamoDbMappedBean> uncommitted = Collections.synchronizedList(new ArrayList<>());
+
+        private CompletableFuture<Void> transact(List<DynamoDbMappedBean> originals, List<DynamoDbMappedBean> attempts, int attempt) {
+            itemsAttempted.addAndGet(attempts.size());
+            transactions.incrementAndGet();
+
+            return client.transactWriteItems(t -> attempts.forEach(e -> addUpdateForEntity(t, e)))
+                    .handle((result, error) -> {
+                        if (error == null) {
+                            updated(originals, attempts);
+                            return CompletableFuture.<Void>completedFuture(null);
+                        }
+                        return retryConflicts(originals, attempts, attempt, error);
+                    })
+                    .thenCompose(next -> next);
+        }
+
+        private void updated(List<DynamoDbMappedBean> originals, List<DynamoDbMappedBean> attempts) {
+            for (int i = 0; i < attempts.size(); i++) {
+                DynamoDbMappedBean written = attempts.get(i);
+                DynamoDbMappedBean original = originals.get(i);
+                written.setVersion(written.getVersion() + 1);
+                if (original != written) {
+                    original.setVersion(written.getVersion());
+                }
+                updateListener.accept(written);
+            }
+            itemsUpdated.addAndGet(attempts.size());
+        }
+
+        private CompletableFuture<Void> retryConflicts(List<DynamoDbMappedBean> originals, List<DynamoDbMappedBean> attempts,
+                                                       int attempt, Throwable error) {
+            TransactionCanceledException cancelled = cancellation(error);
+            List<Integer> conflicted = cancelled == null ? List.of() : conflictedItems(cancelled, attempts.size());
+            conflicts.addAndGet(conflicted.size());
+
+            if (conflicted.isEmpty() || !config.isRetryingConflicts() || attempt >= config.getMaxConflictRetries()) {
+                return CompletableFuture.failedFuture(error);
+            }
+
+            retries.incrementAndGet();
+            List<CompletableFuture<DynamoDbMappedBean>> merges = IntStream.range(0, attempts.size())
+                    .mapToObj(i -> conflicted.contains(i)
+                            ? merge(attempts.get(i))
+                            : CompletableFuture.completedFuture(attempts.get(i)))
+                    .collect(toList());
+
+            return CompletableFuture.allOf(merges.toArray(new CompletableFuture[0]))
+                    .thenCompose(v -> transact(originals,
+                            merges.stream().map(CompletableFuture::join).collect(toList()),
+                            attempt + 1));
+        }
+
+        private List<Integer> conflictedItems(TransactionCanceledException cancelled, int size) {
+            List<CancellationReason> reasons = cancelled.cancellationReasons();
+            if (reasons.size() != size) {
+                return List.of();
+            }
+
+            List<Integer> conflicted = new ArrayList<>();
+            for (int i = 0; i < size; i++) {
+                String code = reasons.get(i).code();
+                if (CONDITIONAL_CHECK_FAILED.equals(code)) {
+                    conflicted.add(i);
+                } else if (code != null && !NO_FAILURE.equals(code)) {
+                    return List.of();
+                }
+            }
+            return conflicted;
+        }
+
+        private CompletableFuture<DynamoDbMappedBean> merge(DynamoDbMappedBean attempted) {
+            return readCurrent(attempted).thenApply(current -> {
+                if (current == null) {
+                    throw new IllegalStateException("DynamoDb item was deleted while resolving an update conflict");
+                }
+                DynamoDbMappedBean merged = config.getConflictResolver().resolve(attempted, current);
+                if (merged == null) {
+                    throw new IllegalStateException("DynamoDb update conflict could not be resolved");
+                }
+                merged.setVersion(current.getVersion());
+                return merged;
+            });
+        }
+
+        private void failed(List<DynamoDbMappedBean> chunk, Throwable error) {
+            failure.compareAndSet(null, unwrap(error));
+            uncommitted.addAll(chunk);
+        }
+
+        private boolean hasFailed() {
+            return failure.get() != null;
+        }
+
+        private Throwable failure() {
+            return failure.get();
+        }
+
+        private List<DynamoDbMappedBean> uncommitted(Iterator<List<DynamoDbMappedBean>> chunks) {
+            synchronized (chunks) {
+                chunks.forEachRemaining(uncommitted::addAll);
+            }
+            return new ArrayList<>(uncommitted);
+        }
+
+        private UpdateStatistics statistics() {
+            return new UpdateStatistics(itemsUpdated.get(), itemsAttempted.get(), transactions.get(),
+                    conflicts.get(), retries.get(), Duration.ofNanos(System.nanoTime() - started));
+        }
+    }
+}
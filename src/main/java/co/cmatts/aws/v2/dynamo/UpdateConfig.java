@@ -0,0 +1,24 @@
+package co.cmatts.aws.v2.dynamo;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class UpdateConfig {
+    @Builder.Default
+    int maxTransactionSize = 100;
+    @Builder.Default
+    int maxConcurrentTransactions = 4;
+    @Builder.Default
+    int maxConflictRetries = 3;
+    ConflictResolver conflictResolver;
+
+    public boolean isRetryingConflicts() {
+        return conflictResolver != null && maxConflictRetries > 0;
+    }
+
+    public static UpdateConfig defaults() {
+        return UpdateConfig.builder().build();
+    }
+}
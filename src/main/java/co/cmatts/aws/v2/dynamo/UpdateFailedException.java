@@ -0,0 +1,19 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.v2.dynamo.model.DynamoDbMappedBean;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class UpdateFailedException extends RuntimeException {
+    private final UpdateStatistics statistics;
+    private final List<DynamoDbMappedBean> uncommitted;
+
+    public UpdateFailedException(UpdateStatistics statistics, List<DynamoDbMappedBean> uncommitted, Throwable cause) {
+        super("DynamoDb update committed " + statistics.getItemsUpdated() + " items and left "
+                + uncommitted.size() + " uncommitted", cause);
+        this.statistics = statistics;
+        this.uncommitted = List.copyOf(uncommitted);
+    }
+}
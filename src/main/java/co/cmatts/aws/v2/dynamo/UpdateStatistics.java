@@ -0,0 +1,22 @@
+package co.cmatts.aws.v2.dynamo;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+public class UpdateStatistics {
+    long itemsUpdated;
+    long itemsAttempted;
+    long transactions;
+    long conflicts;
+    long retries;
+    Duration elapsed;
+
+    public double conflictRate() {
+        if (itemsAttempted == 0) {
+            return 0.0;
+        }
+        return (double) conflicts / itemsAttempted;
+    }
+}
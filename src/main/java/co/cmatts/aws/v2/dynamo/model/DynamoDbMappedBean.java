@@ -8,4 +8,6 @@ public interface DynamoDbMappedBean {
     Long getVersion();
 
     void setVersion(Long version);
+
+    DynamoDbMappedBean copy();
 }
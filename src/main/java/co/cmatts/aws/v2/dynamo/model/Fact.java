@@ -6,13 +6,17 @@ import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
 
+import java.util.List;
+
 @Data
-@Builder
+@Builder(toBuilder = true)
 @EqualsAndHashCode(of = "id")
 @NoArgsConstructor
 @AllArgsConstructor
 @DynamoDbBean
 public class Fact implements DynamoDbMappedBean {
+    public static final List<String> SUMMARY = List.of("id", "personId", "year");
+
     @Getter(onMethod_ = @DynamoDbPartitionKey)
     private Integer id;
     @Getter(onMethod_ = @DynamoDbSecondaryPartitionKey(indexNames = "personIndex"))
@@ -28,4 +32,9 @@ public class Fact implements DynamoDbMappedBean {
     public String tableName() {
         return "facts";
     }
+
+    @Override
+    public Fact copy() {
+        return toBuilder().build();
+    }
 }
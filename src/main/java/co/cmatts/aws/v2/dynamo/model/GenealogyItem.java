@@ -0,0 +1,124 @@
+package co.cmatts.aws.v2.dynamo.model;
+
+import lombok.*;
+import software.amazon.awssdk.enhanced.dynamodb.extensions.annotations.DynamoDbVersionAttribute;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbIgnore;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
+
+@Data
+@Builder(toBuilder = true)
+@EqualsAndHashCode(of = {"pk", "sk"})
+@NoArgsConstructor
+@AllArgsConstructor
+@DynamoDbBean
+public class GenealogyItem implements DynamoDbMappedBean {
+    public static final String PERSON_PREFIX = "PERSON#";
+    public static final String FACT_PREFIX = "FACT#";
+
+    @Getter(onMethod_ = {@DynamoDbPartitionKey, @DynamoDbSecondarySortKey(indexNames = "invertedIndex")})
+    private String pk;
+    @Getter(onMethod_ = {@DynamoDbSortKey, @DynamoDbSecondaryPartitionKey(indexNames = "invertedIndex")})
+    private String sk;
+    private Integer id;
+    private String name;
+    private Integer yearOfBirth;
+    private Integer yearOfDeath;
+    private Integer fatherId;
+    private Integer motherId;
+    @Getter(onMethod_ = @DynamoDbSecondaryPartitionKey(indexNames = "fatherIndex"))
+    private String fatherKey;
+    @Getter(onMethod_ = @DynamoDbSecondaryPartitionKey(indexNames = "motherIndex"))
+    private String motherKey;
+    private Integer personId;
+    private Integer year;
+    private String image;
+    private String source;
+    private String description;
+    @Getter(onMethod_ = @DynamoDbVersionAttribute)
+    private Long version;
+
+    public static String personKey(Integer id) {
+        return id == null ? null : PERSON_PREFIX + id;
+    }
+
+    public static String factKey(Integer id) {
+        return id == null ? null : FACT_PREFIX + id;
+    }
+
+    public static GenealogyItem fromPerson(Person person) {
+        return GenealogyItem.builder()
+                .pk(personKey(person.getId()))
+                .sk(personKey(person.getId()))
+                .id(person.getId())
+                .name(person.getName())
+                .yearOfBirth(person.getYearOfBirth())
+                .yearOfDeath(person.getYearOfDeath())
+                .fatherId(person.getFatherId())
+                .motherId(person.getMotherId())
+                .fatherKey(personKey(person.getFatherId()))
+                .motherKey(personKey(person.getMotherId()))
+                .version(person.getVersion())
+                .build();
+    }
+
+    public static GenealogyItem fromFact(Fact fact) {
+        return GenealogyItem.builder()
+                .pk(personKey(fact.getPersonId()))
+                .sk(factKey(fact.getId()))
+                .id(fact.getId())
+                .personId(fact.getPersonId())
+                .year(fact.getYear())
+                .image(fact.getImage())
+                .source(fact.getSource())
+                .description(fact.getDescription())
+                .version(fact.getVersion())
+                .build();
+    }
+
+    @DynamoDbIgnore
+    public boolean isPerson() {
+        return sk != null && sk.startsWith(PERSON_PREFIX);
+    }
+
+    @DynamoDbIgnore
+    public boolean isFact() {
+        return sk != null && sk.startsWith(FACT_PREFIX);
+    }
+
+    public Person toPerson() {
+        return Person.builder()
+                .id(id)
+                .name(name)
+                .yearOfBirth(yearOfBirth)
+                .yearOfDeath(yearOfDeath)
+                .fatherId(fatherId)
+                .motherId(motherId)
+                .version(version)
+                .build();
+    }
+
+    public Fact toFact() {
+        return Fact.builder()
+                .id(id)
+                .personId(personId)
+                .year(year)
+                .image(image)
+                .source(source)
+                .description(description)
+                .version(version)
+                .build();
+    }
+
+    public String tableName() {
+        return "genealogy";
+    }
+
+    @Override
+    public GenealogyItem copy() {
+        return toBuilder().build();
+    }
+}
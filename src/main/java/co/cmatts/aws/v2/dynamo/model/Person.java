@@ -1,20 +1,28 @@
 package co.cmatts.aws.v2.dynamo.model;
 
+import co.cmatts.aws.dynamo.FamilyMember;
 import lombok.*;
 import software.amazon.awssdk.enhanced.dynamodb.extensions.annotations.DynamoDbVersionAttribute;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondaryPartitionKey;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSecondarySortKey;
+
+import java.util.List;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
 @EqualsAndHashCode(of = "id")
 @NoArgsConstructor
 @AllArgsConstructor
 @DynamoDbBean
-public class Person implements DynamoDbMappedBean {
+public class Person implements DynamoDbMappedBean, FamilyMember {
+    public static final String ENTITY_TYPE = "PERSON";
+    public static final List<String> SUMMARY = List.of("id", "name", "yearOfBirth", "fatherId", "motherId");
+
     @Getter(onMethod_ = @DynamoDbPartitionKey)
     private Integer id;
+    @Getter(onMethod_ = @DynamoDbSecondarySortKey(indexNames = "nameIndex"))
     private String name;
     private Integer yearOfBirth;
     private Integer yearOfDeath;
@@ -25,7 +33,20 @@ public class Person implements DynamoDbMappedBean {
     @Getter(onMethod_ = @DynamoDbVersionAttribute)
     private Long version;
 
+    @DynamoDbSecondaryPartitionKey(indexNames = "nameIndex")
+    public String getEntityType() {
+        return ENTITY_TYPE;
+    }
+
+    public void setEntityType(String entityType) {
+    }
+
     public String tableName() {
         return "people";
     }
+
+    @Override
+    public Person copy() {
+        return toBuilder().build();
+    }
 }
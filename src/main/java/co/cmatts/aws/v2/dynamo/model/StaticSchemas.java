@@ -0,0 +1,95 @@
+package co.cmatts.aws.v2.dynamo.model;
+
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static software.amazon.awssdk.enhanced.dynamodb.extensions.VersionedRecordExtension.AttributeTags.versionAttribute;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.primaryPartitionKey;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.secondaryPartitionKey;
+import static software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags.secondarySortKey;
+
+public class StaticSchemas {
+
+    public static final TableSchema<Person> PERSON = personSchema();
+    public static final TableSchema<Fact> FACT = factSchema();
+
+    private static final Map<Class<?>, TableSchema<?>> SCHEMAS = Map.of(
+            Person.class, PERSON,
+            Fact.class, FACT);
+
+    private StaticSchemas() {
+    }
+
+    public static <T extends DynamoDbMappedBean> Optional<TableSchema<T>> forClass(Class<T> beanClass) {
+        return Optional.ofNullable((TableSchema<T>) SCHEMAS.get(beanClass));
+    }
+
+    public static StaticTableSchema<Person> personSchema() {
+        return StaticTableSchema.builder(Person.class)
+                .newItemSupplier(Person::new)
+                .addAttribute(Integer.class, a -> a.name("id")
+                        .getter(Person::getId)
+                        .setter(Person::setId)
+                        .tags(primaryPartitionKey()))
+                .addAttribute(String.class, a -> a.name("name")
+                        .getter(Person::getName)
+                        .setter(Person::setName)
+                        .tags(secondarySortKey("nameIndex")))
+                .addAttribute(Integer.class, a -> a.name("yearOfBirth")
+                        .getter(Person::getYearOfBirth)
+                        .setter(Person::setYearOfBirth))
+                .addAttribute(Integer.class, a -> a.name("yearOfDeath")
+                        .getter(Person::getYearOfDeath)
+                        .setter(Person::setYearOfDeath))
+                .addAttribute(Integer.class, a -> a.name("fatherId")
+                        .getter(Person::getFatherId)
+                        .setter(Person::setFatherId)
+                        .tags(secondaryPartitionKey("fatherIndex")))
+                .addAttribute(Integer.class, a -> a.name("motherId")
+                        .getter(Person::getMotherId)
+                        .setter(Person::setMotherId)
+                        .tags(secondaryPartitionKey("motherIndex")))
+                .addAttribute(String.class, a -> a.name("entityType")
+                        .getter(Person::getEntityType)
+                        .setter(Person::setEntityType)
+                        .tags(secondaryPartitionKey("nameIndex")))
+                .addAttribute(Long.class, a -> a.name("version")
+                        .getter(Person::getVersion)
+                        .setter(Person::setVersion)
+                        .tags(versionAttribute()))
+                .build();
+    }
+
+    public static StaticTableSchema<Fact> factSchema() {
+        return StaticTableSchema.builder(Fact.class)
+                .newItemSupplier(Fact::new)
+                .addAttribute(Integer.class, a -> a.name("id")
+                        .getter(Fact::getId)
+                        .setter(Fact::setId)
+                        .tags(primaryPartitionKey()))
+                .addAttribute(Integer.class, a -> a.name("personId")
+                        .getter(Fact::getPersonId)
+                        .setter(Fact::setPersonId)
+                        .tags(secondaryPartitionKey("personIndex")))
+                .addAttribute(Integer.class, a -> a.name("year")
+                        .getter(Fact::getYear)
+                        .setter(Fact::setYear))
+                .addAttribute(String.class, a -> a.name("image")
+                        .getter(Fact::getImage)
+                        .setter(Fact::setImage))
+                .addAttribute(String.class, a -> a.name("source")
+                        .getter(Fact::getSource)
+                        .setter(Fact::setSource))
+                .addAttribute(String.class, a -> a.name("description")
+                        .getter(Fact::getDescription)
+                        .setter(Fact::setDescription))
+                .addAttribute(Long.class, a -> a.name("version")
+                        .getter(Fact::getVersion)
+                        .setter(Fact::setVersion)
+                        .tags(versionAttribute()))
+                .build();
+    }
+}
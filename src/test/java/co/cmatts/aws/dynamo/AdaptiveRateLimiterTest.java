@@ -0,0 +1,63 @@
+package co.cmatts.aws.dynamo;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AdaptiveRateLimiterTest {
+
+    private static final ThrottleConfig CONFIG = ThrottleConfig.builder()
+            .enabled(true)
+            .initialRate(10.0)
+            .minRate(2.0)
+            .maxRate(12.0)
+            .build();
+
+    private final AtomicLong clock = new AtomicLong();
+    private final AdaptiveRateLimiter limiter = new AdaptiveRateLimiter(CONFIG, clock::get);
+
+    @Test
+    void shouldAllowABurstUpToTheCurrentRate() {
+        assertThat(limiter.reserve(10)).isZero();
+        assertThat(limiter.reserve(5)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(500L));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1L));
+        assertThat(limiter.reserve(5)).isZero();
+    }
+
+    @Test
+    void shouldIncreaseAdditivelyAndDecreaseMultiplicatively() {
+        limiter.onWrite(10.0, 10, 0);
+        assertThat(limiter.rate()).isEqualTo(11.0);
+
+        limiter.onWrite(10.0, 10, 0);
+        limiter.onWrite(10.0, 10, 0);
+        assertThat(limiter.rate()).isEqualTo(12.0);
+
+        limiter.onWrite(5.0, 5, 5);
+        assertThat(limiter.rate()).isEqualTo(6.0);
+
+        limiter.onThrottled();
+        limiter.onThrottled();
+        assertThat(limiter.rate()).isEqualTo(2.0);
+    }
+
+    @Test
+    void shouldLearnCapacityUnitsPerItem() {
+        for (int i = 0; i < 50; i++) {
+            limiter.onWrite(50.0, 25, 0);
+        }
+        assertThat(limiter.unitsPerItem()).isCloseTo(2.0, offset(0.01));
+    }
+
+    @Test
+    void shouldRejectInvalidRates() {
+        assertThatThrownBy(() -> new AdaptiveRateLimiter(ThrottleConfig.builder().initialRate(0.5).build()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
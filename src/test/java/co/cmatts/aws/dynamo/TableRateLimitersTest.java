@@ -0,0 +1,30 @@
+package co.cmatts.aws.dynamo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TableRateLimitersTest {
+
+    @Test
+    void shouldKeepOneLimiterPerTableWithinAnInstance() {
+        TableRateLimiters rateLimiters = new TableRateLimiters(ThrottleConfig.enabled(10.0));
+
+        assertThat(rateLimiters.find("people")).isEmpty();
+        AdaptiveRateLimiter people = rateLimiters.forTable("people");
+
+        assertThat(rateLimiters.forTable("people")).isSameAs(people);
+        assertThat(rateLimiters.find("people")).containsSame(people);
+        assertThat(rateLimiters.forTable("facts")).isNotSameAs(people);
+    }
+
+    @Test
+    void shouldApplyEachInstancesOwnConfig() {
+        TableRateLimiters slow = new TableRateLimiters(ThrottleConfig.enabled(10.0));
+        TableRateLimiters fast = new TableRateLimiters(ThrottleConfig.enabled(100.0));
+
+        assertThat(slow.forTable("people").rate()).isEqualTo(10.0);
+        assertThat(fast.forTable("people").rate()).isEqualTo(100.0);
+        assertThat(fast.forTable("people")).isNotSameAs(slow.forTable("people"));
+    }
+}
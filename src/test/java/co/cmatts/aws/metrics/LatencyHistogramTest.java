@@ -0,0 +1,59 @@
+package co.cmatts.aws.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LatencyHistogramTest {
+
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    @Test
+    void shouldReportZeroWhenEmpty() {
+        assertThat(histogram.count()).isZero();
+        assertThat(histogram.mean()).isZero();
+        assertThat(histogram.percentile(99.0)).isZero();
+    }
+
+    @Test
+    void shouldRecordSmallValuesExactly() {
+        for (long value = 1; value <= 10; value++) {
+            histogram.record(value);
+        }
+
+        assertThat(histogram.count()).isEqualTo(10L);
+        assertThat(histogram.mean()).isEqualTo(5.5);
+        assertThat(histogram.percentile(50.0)).isEqualTo(5L);
+        assertThat(histogram.percentile(100.0)).isEqualTo(10L);
+    }
+
+    @Test
+    void shouldKeepPercentilesWithinTheBucketPrecision() {
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+
+        assertThat(histogram.percentile(50.0)).isBetween(500_000L, 500_000L + 500_000L / 32);
+        assertThat(histogram.percentile(99.0)).isBetween(990_000L, 990_000L + 990_000L / 32);
+        assertThat(histogram.percentile(100.0)).isEqualTo(1_000_000L);
+        assertThat(histogram.max()).isEqualTo(1_000_000L);
+    }
+
+    @Test
+    void shouldMapEveryValueIntoABucketThatContainsIt() {
+        for (long value : new long[]{0L, 31L, 32L, 63L, 64L, 65L, 123_456_789L, Long.MAX_VALUE}) {
+            int index = LatencyHistogram.index(value);
+            assertThat(LatencyHistogram.highestValue(index)).isGreaterThanOrEqualTo(value);
+            if (index > 0) {
+                assertThat(LatencyHistogram.highestValue(index - 1)).isLessThan(value);
+            }
+        }
+    }
+
+    @Test
+    void shouldRejectPercentilesOutOfRange() {
+        assertThatThrownBy(() -> histogram.percentile(101.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,9 +1,13 @@
 package co.cmatts.aws.v1.dynamo;
 
+import co.cmatts.aws.dynamo.ResultPage;
 import co.cmatts.aws.v1.cloudformation.CloudFormation;
 import co.cmatts.aws.v1.dynamo.model.Fact;
 import co.cmatts.aws.v1.dynamo.model.Person;
+import co.cmatts.aws.v1.dynamo.model.PersonWithFacts;
 import co.cmatts.aws.v1.dynamo.model.Siblings;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.ConsistentReads;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
 import com.amazonaws.services.dynamodbv2.model.TransactionCanceledException;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
@@ -16,11 +20,15 @@ import uk.org.webcompere.systemstubs.environment.EnvironmentVariables;
 import uk.org.webcompere.systemstubs.jupiter.SystemStub;
 import uk.org.webcompere.systemstubs.jupiter.SystemStubsExtension;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static co.cmatts.aws.v1.dynamo.DynamoDbTestDataFactory.*;
 import static java.util.Arrays.asList;
+import static java.util.Collections.emptyList;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.testcontainers.containers.localstack.LocalStackContainer.Service.CLOUDFORMATION;
@@ -71,6 +79,19 @@ class DynamoRepositoryTest {
                 .isEqualTo(person(1).toString());
     }
     
+    @Test
+    void shouldFindPersonWithEventuallyConsistentRead() {
+        Optional<Person> result = repo.findPerson(1, ConsistentReads.EVENTUAL);
+        assertThat(result).hasValueSatisfying(p -> assertThat(p.toString()).isEqualTo(person(1).toString()));
+    }
+
+    @Test
+    void shouldFindPeopleByIdWithABatchLoad() {
+        List<Person> people = repo.findPeople(asList(2, 1, 99, 2));
+        assertThat(people).extracting(Person::getId).containsExactly(1, 2);
+        assertThat(repo.findPeople(emptyList())).isEmpty();
+    }
+
     @Test
 	void shouldNotFindPerson() {
         Optional<Person> result = repo.findPerson(99);
@@ -86,12 +107,91 @@ class DynamoRepositoryTest {
                 .isEqualTo(fact(2).toString());
     }
 
+    @Test
+    void shouldFindProjectedFactsForPerson() {
+        List<Fact> facts = repo.findFacts(1, Fact.SUMMARY);
+        assertThat(facts).containsExactlyInAnyOrder(fact(1), fact(2), fact(3));
+        assertThat(facts).allSatisfy(f -> {
+            assertThat(f.getYear()).isEqualTo(fact(f.getId()).getYear());
+            assertThat(f.getDescription()).isNull();
+            assertThat(f.getImage()).isNull();
+        });
+    }
+
+    @Test
+    void shouldFindProjectedPeopleByFather() {
+        List<Person> people = repo.findPersonByFather(19, Person.SUMMARY);
+        assertThat(people).containsExactlyInAnyOrder(person(10), person(11));
+        assertThat(people).allSatisfy(p -> {
+            assertThat(p.getName()).isEqualTo(person(p.getId()).getName());
+            assertThat(p.getYearOfDeath()).isNull();
+        });
+    }
+
+    @Test
+    void shouldPageThroughPeopleByMother() {
+        List<Person> people = new ArrayList<>();
+        ResultPage<Person> page = repo.findPersonByMotherPage(17, 3, null);
+        people.addAll(page.getItems());
+        int pages = 1;
+        while (page.hasMore()) {
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(3);
+            page = repo.findPersonByMotherPage(17, 3, page.getContinuationToken());
+            people.addAll(page.getItems());
+            pages++;
+        }
+
+        assertThat(pages).isGreaterThanOrEqualTo(3);
+        assertThat(people).containsExactlyInAnyOrder(person(1), person(2), person(8), person(9), person(10), person(11), person(12));
+    }
+
+    @Test
+    void shouldFindPersonWithFacts() {
+        Optional<PersonWithFacts> result = repo.findPersonWithFacts(1);
+
+        assertThat(result).hasValueSatisfying(p -> {
+            assertThat(p.getPerson().toString()).isEqualTo(person(1).toString());
+            assertThat(p.getFacts()).containsExactlyInAnyOrder(fact(1), fact(2), fact(3));
+        });
+        assertThat(repo.findPersonWithFacts(99)).isEmpty();
+    }
+
+    @Test
+    void shouldFindPeopleWithFactsInRequestedOrder() {
+        List<PersonWithFacts> results = repo.findPeopleWithFacts(asList(2, 99, 1, 2));
+
+        assertThat(results).extracting(p -> p.getPerson().getId()).containsExactly(2, 1);
+        assertThat(results.get(0).getFacts()).containsExactly(fact(4));
+        assertThat(results.get(1).getFacts()).containsExactlyInAnyOrder(fact(1), fact(2), fact(3));
+    }
+
     @Test
 	void shouldNotFindFacts() {
         List<Fact> facts = repo.findFacts(99);
         assertThat(facts).hasSize(0);
     }
 
+    @Test
+    void shouldStreamFactsForPerson() {
+        try (Stream<Fact> facts = repo.streamFacts(1)) {
+            assertThat(facts.collect(toList())).containsExactlyInAnyOrder(fact(1), fact(2), fact(3));
+        }
+    }
+
+    @Test
+    void shouldStreamPersonByFather() {
+        try (Stream<Person> people = repo.streamPersonByFather(19)) {
+            assertThat(people.collect(toList())).containsExactlyInAnyOrder(person(10), person(11));
+        }
+    }
+
+    @Test
+    void shouldStreamAllPeopleWithParallelScan() {
+        try (Stream<Person> people = repo.streamPeople()) {
+            assertThat(people.count()).isEqualTo(peopleCount());
+        }
+    }
+
     @Test
 	void shouldFindAllSiblingsGroupedByParentsAndInOrderOfYearOfBirth() {
         Siblings siblings = repo.findSiblings(1);
@@ -112,6 +212,32 @@ class DynamoRepositoryTest {
         assertThat(siblings).isEqualTo(PERSON_8_SIBLINGS);
     }
 
+    @Test
+    void shouldFindAncestorsByGeneration() {
+        List<List<Person>> ancestors = repo.findAncestors(1, 3);
+
+        assertThat(ancestors).hasSize(1);
+        assertThat(ancestors.get(0)).extracting(Person::getId).containsExactly(16, 17);
+    }
+
+    @Test
+    void shouldFindDescendantsByGeneration() {
+        List<List<Person>> descendants = repo.findDescendants(17, 2);
+
+        assertThat(descendants).hasSize(1);
+        assertThat(descendants.get(0)).extracting(Person::getId).containsExactly(1, 2, 8, 9, 10, 11, 12);
+        assertThatThrownBy(() -> repo.findDescendants(17, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldRejectIterationOnlyPaginationForListResults() {
+        DynamoRepositoryConfig config = DynamoRepositoryConfig.builder()
+                .paginationLoadingStrategy(PaginationLoadingStrategy.ITERATION_ONLY)
+                .build();
+
+        assertThatThrownBy(() -> new DynamoRepository(config)).isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
 	void shouldFindAllPeopleSorted() {
         List<Person> people = repo.findPeople();
@@ -120,6 +246,35 @@ class DynamoRepositoryTest {
         assertThat(people.get(1).getName()).isEqualTo("Mr Test");
     }
 
+    @Test
+    void shouldPageThroughPeopleInNameOrder() {
+        ResultPage<Person> page = repo.findPeopleByName(3, null);
+        assertThat(page.getItems()).extracting(Person::getName).containsExactly("First Person", "Mr Test", "Mr Test1");
+
+        List<String> names = new ArrayList<>();
+        names.addAll(page.getItems().stream().map(Person::getName).collect(toList()));
+        while (page.hasMore()) {
+            page = repo.findPeopleByName(3, page.getContinuationToken());
+            names.addAll(page.getItems().stream().map(Person::getName).collect(toList()));
+        }
+
+        assertThat(names).hasSize(peopleCount()).isSorted();
+    }
+
+    @Test
+    void shouldFindAllPeopleSortedWithParallelScan() {
+        List<Person> people = repo.findPeople(3);
+        assertThat(people).hasSize(peopleCount());
+        assertThat(people.get(0).getName()).isEqualTo("First Person");
+        assertThat(people.get(1).getName()).isEqualTo("Mr Test");
+    }
+
+    @Test
+    void shouldFindFirstPeopleByNameWithParallelScan() {
+        List<Person> people = repo.findPeople(3, 3);
+        assertThat(people).extracting(Person::getName).containsExactly("First Person", "Mr Test", "Mr Test1");
+    }
+
     @Test
     void shouldUpdateEntities() {
         Person person = repo.findPerson(21).get();
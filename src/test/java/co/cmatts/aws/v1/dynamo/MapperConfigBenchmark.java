@@ -0,0 +1,55 @@
+package co.cmatts.aws.v1.dynamo;
+
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig;
+import com.amazonaws.services.dynamodbv2.datamodeling.DynamoDBMapperConfig.PaginationLoadingStrategy;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+import static co.cmatts.aws.v1.dynamo.Dynamo.TABLE_NAME_PREFIX;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(8)
+@Fork(1)
+public class MapperConfigBenchmark {
+
+    @Benchmark
+    public DynamoDBMapperConfig buildMapperConfigPerCall() {
+        return DynamoDBMapperConfig.builder()
+                .withTableNameOverride(DynamoDBMapperConfig.TableNameOverride.withTableNamePrefix(TABLE_NAME_PREFIX))
+                .build();
+    }
+
+    @Benchmark
+    public DynamoDBMapperConfig cachedMapperConfig() {
+        return Dynamo.getDynamoMapperConfig();
+    }
+
+    @Benchmark
+    public DynamoDBMapperConfig buildStreamingMapperConfigPerCall() {
+        return DynamoDBMapperConfig.builder()
+                .withTableNameOverride(DynamoDBMapperConfig.TableNameOverride.withTableNamePrefix(TABLE_NAME_PREFIX))
+                .withPaginationLoadingStrategy(PaginationLoadingStrategy.ITERATION_ONLY)
+                .build();
+    }
+
+    @Benchmark
+    public DynamoDBMapperConfig cachedStreamingMapperConfig() {
+        return Dynamo.getDynamoMapperConfig(PaginationLoadingStrategy.ITERATION_ONLY);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(MapperConfigBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
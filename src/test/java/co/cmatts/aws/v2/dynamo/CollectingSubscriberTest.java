@@ -0,0 +1,86 @@
+package co.cmatts.aws.v2.dynamo;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CollectingSubscriberTest {
+
+    private static final SubscriberConfig CONFIG = SubscriberConfig.builder()
+            .prefetch(2)
+            .timeout(Duration.ofMillis(200L))
+            .build();
+
+    @Test
+    void shouldRequestItemsInPrefetchWindows() {
+        RecordingSubscription subscription = new RecordingSubscription();
+        CollectingSubscriber<String> subscriber = new CollectingSubscriber<>(CONFIG);
+
+        subscriber.onSubscribe(subscription);
+        subscriber.onNext("a");
+        subscriber.onNext("b");
+        subscriber.onNext("c");
+        subscriber.onComplete();
+
+        assertThat(subscription.requests).containsExactly(2L, 2L);
+        assertThat(subscriber.await()).containsExactly("a", "b", "c");
+    }
+
+    @Test
+    void shouldCancelSubscriptionWhenDeadlineExpires() {
+        RecordingSubscription subscription = new RecordingSubscription();
+        CollectingSubscriber<String> subscriber = new CollectingSubscriber<>(CONFIG);
+
+        subscriber.onSubscribe(subscription);
+        subscriber.onNext("a");
+
+        assertThatThrownBy(subscriber::await)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("failed to get all content");
+        assertThat(subscription.cancelled).isTrue();
+    }
+
+    @Test
+    void shouldReportPublisherErrors() {
+        CollectingSubscriber<String> subscriber = new CollectingSubscriber<>(CONFIG);
+        subscriber.onSubscribe(new RecordingSubscription());
+        subscriber.onError(new RuntimeException("boom"));
+
+        assertThatThrownBy(subscriber::await)
+                .isInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("boom");
+    }
+
+    @Test
+    void shouldCancelLateSubscription() {
+        RecordingSubscription subscription = new RecordingSubscription();
+        CollectingSubscriber<String> subscriber = new CollectingSubscriber<>(CONFIG);
+
+        subscriber.cancel();
+        subscriber.onSubscribe(subscription);
+
+        assertThat(subscription.cancelled).isTrue();
+        assertThat(subscription.requests).isEmpty();
+    }
+
+    private static class RecordingSubscription implements Subscription {
+        private final List<Long> requests = new ArrayList<>();
+        private volatile boolean cancelled = false;
+
+        @Override
+        public void request(long n) {
+            requests.add(n);
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package co.cmatts.aws.v2.dynamo;
+
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.SdkBytes;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ContinuationTokensTest {
+
+    @Test
+    void shouldRoundTripKeys() {
+        Map<String, AttributeValue> key = Map.of(
+                "id", AttributeValue.builder().n("42").build(),
+                "name", AttributeValue.builder().s("Mr Test.~ü").build(),
+                "data", AttributeValue.builder().b(SdkBytes.fromByteArray(new byte[] {1, 2, 3})).build());
+
+        String token = ContinuationTokens.encode(key);
+
+        assertThat(token).matches("[A-Za-z0-9_\\-.~]+");
+        assertThat(ContinuationTokens.decode(token)).isEqualTo(key);
+    }
+
+    @Test
+    void shouldHaveNoTokenAtTheEndOfResults() {
+        assertThat(ContinuationTokens.encode(null)).isNull();
+        assertThat(ContinuationTokens.encode(Map.of())).isNull();
+        assertThat(ContinuationTokens.decode(null)).isNull();
+    }
+
+    @Test
+    void shouldRejectInvalidTokens() {
+        assertThatThrownBy(() -> ContinuationTokens.decode("not a token"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("Invalid continuation token");
+    }
+}
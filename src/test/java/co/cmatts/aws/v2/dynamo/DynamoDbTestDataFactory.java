@@ -106,6 +106,18 @@ public class DynamoDbTestDataFactory {
                 .build();
     }
 
+    public static List<Fact> bulkFactDataList(int personId, int firstId, int count) {
+        return IntStream.range(firstId, firstId + count)
+                .mapToObj(i -> Fact.builder()
+                        .id(i)
+                        .personId(personId)
+                        .year(1900 + i % 100)
+                        .description("bulk fact " + i)
+                        .version(1L)
+                        .build())
+                .collect(Collectors.toList());
+    }
+
     public static int peopleCount() {
         return PEOPLE_DATA.length;
     }
@@ -1,12 +1,19 @@
 package co.cmatts.aws.v2.dynamo;
 
+import co.cmatts.aws.dynamo.ResultPage;
+import co.cmatts.aws.dynamo.TableRateLimiters;
+import co.cmatts.aws.dynamo.ThrottleConfig;
+import co.cmatts.aws.metrics.HistogramMetricsSink;
+import co.cmatts.aws.metrics.OperationSummary;
 import co.cmatts.aws.v2.cloudformation.CloudFormation;
 import co.cmatts.aws.v2.dynamo.model.Fact;
 import co.cmatts.aws.v2.dynamo.model.Person;
+import co.cmatts.aws.v2.dynamo.model.PersonWithFacts;
 import co.cmatts.aws.v2.dynamo.model.Siblings;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.testcontainers.containers.localstack.LocalStackContainer;
 import org.testcontainers.junit.jupiter.Container;
 import org.testcontainers.junit.jupiter.Testcontainers;
@@ -17,16 +24,28 @@ import uk.org.webcompere.systemstubs.jupiter.SystemStub;
 import uk.org.webcompere.systemstubs.jupiter.SystemStubsExtension;
 import uk.org.webcompere.systemstubs.properties.SystemProperties;
 
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
 
 import static co.cmatts.aws.v2.dynamo.DynamoDbTestDataFactory.*;
 import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+import static org.awaitility.Duration.FIVE_SECONDS;
 import static org.testcontainers.containers.localstack.LocalStackContainer.Service.CLOUDFORMATION;
 import static org.testcontainers.containers.localstack.LocalStackContainer.Service.DYNAMODB;
+import static org.testcontainers.containers.localstack.LocalStackContainer.Service.DYNAMODB_STREAMS;
+import static software.amazon.awssdk.services.dynamodb.model.OperationType.MODIFY;
 
 @Testcontainers
 @ExtendWith(SystemStubsExtension.class)
@@ -43,7 +62,7 @@ class DynamoRepositoryTest {
 
     @Container
     private static final LocalStackContainer LOCAL_STACK_CONTAINER = new LocalStackContainer(IMAGE)
-            .withServices(DYNAMODB, CLOUDFORMATION);
+            .withServices(DYNAMODB, DYNAMODB_STREAMS, CLOUDFORMATION);
 
     private static DynamoRepository repo;
 
@@ -94,12 +113,232 @@ class DynamoRepositoryTest {
                 .isEqualTo(fact(2).toString());
     }
 
+    @Test
+    void shouldFindProjectedFactsForPerson() {
+        List<Fact> facts = repo.findFacts(1, Fact.SUMMARY);
+        assertThat(facts).containsExactlyInAnyOrder(fact(1), fact(2), fact(3));
+        assertThat(facts).allSatisfy(f -> {
+            assertThat(f.getYear()).isEqualTo(fact(f.getId()).getYear());
+            assertThat(f.getDescription()).isNull();
+            assertThat(f.getImage()).isNull();
+        });
+    }
+
+    @Test
+    void shouldFindProjectedPeopleByFather() {
+        List<Person> people = repo.findPersonByFather(19, Person.SUMMARY);
+        assertThat(people).containsExactlyInAnyOrder(person(10), person(11));
+        assertThat(people).allSatisfy(p -> {
+            assertThat(p.getName()).isEqualTo(person(p.getId()).getName());
+            assertThat(p.getYearOfDeath()).isNull();
+        });
+    }
+
+    @Test
+    void shouldRecordQueryMetrics() {
+        HistogramMetricsSink sink = new HistogramMetricsSink();
+        Dynamo.setMetricsSink(sink);
+        try {
+            assertThat(repo.findFacts(1, Fact.SUMMARY)).hasSize(3);
+        } finally {
+            Dynamo.setMetricsSink(null);
+        }
+
+        OperationSummary query = sink.statistics().stream()
+                .filter(s -> "Query".equals(s.getOperation()) && "personIndex".equals(s.getIndexName()))
+                .findFirst()
+                .orElseThrow();
+        assertThat(query.getTableName()).isEqualTo(Dynamo.TABLE_NAME_PREFIX + "facts");
+        assertThat(query.getCalls()).isEqualTo(1L);
+        assertThat(query.getItems()).isEqualTo(3L);
+        assertThat(query.getFailures()).isZero();
+        assertThat(query.getConsumedReadUnits()).isPositive();
+        assertThat(query.getConsumedWriteUnits()).isZero();
+        assertThat(query.getMaxLatency()).isPositive();
+    }
+
+    @Test
+    void shouldPageThroughPeopleByMother() {
+        List<Person> people = new ArrayList<>();
+        ResultPage<Person> page = repo.findPersonByMotherPage(17, 3, null);
+        people.addAll(page.getItems());
+        int pages = 1;
+        while (page.hasMore()) {
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(3);
+            page = repo.findPersonByMotherPage(17, 3, page.getContinuationToken());
+            people.addAll(page.getItems());
+            pages++;
+        }
+
+        assertThat(pages).isGreaterThanOrEqualTo(3);
+        assertThat(people).containsExactlyInAnyOrder(person(1), person(2), person(8), person(9), person(10), person(11), person(12));
+    }
+
+    @Test
+    void shouldFindPersonWithFacts() {
+        Optional<PersonWithFacts> result = repo.findPersonWithFacts(1);
+
+        assertThat(result).hasValueSatisfying(p -> {
+            assertThat(p.getPerson().toString()).isEqualTo(person(1).toString());
+            assertThat(p.getFacts()).containsExactlyInAnyOrder(fact(1), fact(2), fact(3));
+        });
+        assertThat(repo.findPersonWithFacts(99)).isEmpty();
+    }
+
+    @Test
+    void shouldFindPeopleWithFactsInRequestedOrder() {
+        List<PersonWithFacts> results = repo.findPeopleWithFacts(asList(2, 99, 1, 2));
+
+        assertThat(results).extracting(p -> p.getPerson().getId()).containsExactly(2, 1);
+        assertThat(results.get(0).getFacts()).containsExactly(fact(4));
+        assertThat(results.get(1).getFacts()).containsExactlyInAnyOrder(fact(1), fact(2), fact(3));
+    }
+
+    @Test
+    void shouldMigrateToTheSingleTableLayout() {
+        SingleTableRepository singleTable = new SingleTableRepository();
+
+        BulkLoadStatistics statistics = singleTable.migrate();
+
+        assertThat(statistics.getItemsWritten()).isGreaterThanOrEqualTo(peopleCount() + factCount());
+        assertThat(singleTable.findPersonWithFacts(1)).hasValueSatisfying(p -> {
+            assertThat(p.getPerson().toString()).isEqualTo(person(1).toString());
+            assertThat(p.getFacts()).containsExactlyInAnyOrder(fact(1), fact(2), fact(3));
+        });
+        assertThat(singleTable.findPerson(2)).hasValueSatisfying(p -> assertThat(p.getName()).isEqualTo(person(2).getName()));
+        assertThat(singleTable.findFacts(2)).containsExactly(fact(4));
+        assertThat(singleTable.findFact(4)).hasValueSatisfying(f -> assertThat(f.getPersonId()).isEqualTo(2));
+        assertThat(singleTable.findPersonByFather(19)).containsExactlyInAnyOrder(person(10), person(11));
+        assertThat(singleTable.findPersonByMother(21)).containsExactlyInAnyOrder(person(5), person(6));
+    }
+
+    @Test
+    void shouldExportAndImportTables(@TempDir Path directory) throws Exception {
+        ExportStatistics exported = repo.exportTo(directory, 2);
+
+        assertThat(exported.getItemsWritten()).isGreaterThanOrEqualTo(peopleCount() + factCount());
+        assertThat(exported.getFilesWritten()).isEqualTo(4);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(f -> f.getFileName().toString())).containsExactlyInAnyOrder(
+                    "dynamo.example.people-0.ndjson.gz", "dynamo.example.people-1.ndjson.gz",
+                    "dynamo.example.facts-0.ndjson.gz", "dynamo.example.facts-1.ndjson.gz");
+        }
+
+        BulkLoadStatistics imported = repo.importFrom(directory);
+
+        assertThat(imported.getItemsWritten()).isEqualTo(exported.getItemsWritten());
+        assertThat(repo.findPeople()).hasSize(peopleCount());
+        assertThat(repo.findPerson(1)).hasValueSatisfying(p -> assertThat(p.getName()).isEqualTo(person(1).getName()));
+        assertThat(repo.findFacts(1)).containsExactlyInAnyOrder(fact(1), fact(2), fact(3));
+    }
+
+    @Test
+    void shouldConsumePersonChangesFromTheStream() {
+        InMemoryCheckpointStore checkpoints = new InMemoryCheckpointStore();
+        List<ChangeEvent<Person>> events = new CopyOnWriteArrayList<>();
+        ChangeStreamConsumer<Person> consumer = new ChangeStreamConsumer<>(Person.class, checkpoints, events::add);
+        consumer.poll();
+
+        Person person = repo.findPerson(15).get();
+        repo.updateEntities(List.of(person));
+
+        await().atMost(FIVE_SECONDS).until(() -> {
+            consumer.poll();
+            return events.stream().anyMatch(e -> e.getType() == MODIFY && e.item().getId() == 15);
+        });
+
+        ChangeEvent<Person> modified = events.stream()
+                .filter(e -> e.getType() == MODIFY && e.item().getId() == 15)
+                .reduce((first, second) -> second)
+                .get();
+        long previousVersion = Optional.ofNullable(modified.getOldImage().getVersion()).orElse(0L);
+        assertThat(modified.getNewImage().getVersion()).isEqualTo(previousVersion + 1);
+        assertThat(modified.getNewImage().getName()).isEqualTo(person.getName());
+        assertThat(checkpoints.size()).isGreaterThan(0);
+
+        ChangeStreamConsumer<Person> resumed = new ChangeStreamConsumer<>(Person.class, checkpoints, events::add);
+        assertThat(resumed.poll()).isZero();
+    }
+
     @Test
 	void shouldNotFindFacts() {
         List<Fact> facts = repo.findFacts(99);
         assertThat(facts).hasSize(0);
     }
 
+    @Test
+    void shouldStreamFactsForPerson() {
+        try (Stream<Fact> facts = repo.streamFacts(1)) {
+            assertThat(facts.collect(toList())).containsExactlyInAnyOrder(fact(1), fact(2), fact(3));
+        }
+    }
+
+    @Test
+    void shouldNotStreamFacts() {
+        try (Stream<Fact> facts = repo.streamFacts(99)) {
+            assertThat(facts.count()).isEqualTo(0);
+        }
+    }
+
+    @Test
+    void shouldStreamPersonByFather() {
+        try (Stream<Person> people = repo.streamPersonByFather(19)) {
+            assertThat(people.collect(toList())).containsExactlyInAnyOrder(person(10), person(11));
+        }
+    }
+
+    @Test
+    void shouldStreamAllPeople() {
+        try (Stream<Person> people = repo.streamPeople()) {
+            assertThat(people.count()).isEqualTo(peopleCount());
+        }
+    }
+
+    @Test
+    void shouldBulkLoadFromAnIterator() {
+        List<Fact> facts = bulkFactDataList(50, 1000, 110);
+
+        BulkLoadStatistics statistics = repo.load(facts.iterator());
+
+        assertThat(statistics.getItemsWritten()).isEqualTo(110);
+        assertThat(statistics.getBatchesWritten()).isEqualTo(5);
+        assertThat(repo.findFacts(50)).containsExactlyInAnyOrderElementsOf(facts);
+    }
+
+    @Test
+    void shouldFinishWrittenBatchesWhenABulkLoadSourceFails() {
+        List<Fact> facts = bulkFactDataList(52, 3000, 30);
+        Iterator<Fact> items = Stream.concat(facts.stream(), Stream.<Fact>generate(() -> {
+            throw new IllegalStateException("Source failed");
+        })).iterator();
+
+        assertThatThrownBy(() -> repo.load(items))
+            .isInstanceOf(BulkLoadFailedException.class)
+            .hasRootCauseMessage("Source failed")
+            .satisfies(e -> assertThat(((BulkLoadFailedException) e).getStatistics().getItemsWritten()).isEqualTo(25));
+        assertThat(repo.findFacts(52)).containsExactlyInAnyOrderElementsOf(facts.subList(0, 25));
+    }
+
+    @Test
+    void shouldBulkLoadWithAdaptiveThrottling() {
+        try (DynamoRepository throttledRepo = new DynamoRepository(DynamoRepositoryConfig.builder()
+                .bulkLoadConfig(BulkLoadConfig.builder()
+                        .throttleConfig(ThrottleConfig.enabled(100.0))
+                        .build())
+                .build())) {
+            List<Fact> facts = bulkFactDataList(51, 2000, 60);
+            TableRateLimiters rateLimiters = throttledRepo.async().bulkLoader().rateLimiters();
+
+            BulkLoadStatistics statistics = throttledRepo.load(facts.iterator());
+
+            assertThat(statistics.getItemsWritten()).isEqualTo(60);
+            assertThat(rateLimiters.find("dynamo.example.facts")).hasValueSatisfying(limiter ->
+                    assertThat(limiter.rate()).isGreaterThan(100.0));
+            assertThat(rateLimiters.find("dynamo.example.people")).isEmpty();
+            assertThat(throttledRepo.findFacts(51)).containsExactlyInAnyOrderElementsOf(facts);
+        }
+    }
+
     @Test
 	void shouldFindAllSiblingsGroupedByParentsAndInOrderOfYearOfBirth() {
         Siblings siblings = repo.findSiblings(1);
@@ -120,6 +359,23 @@ class DynamoRepositoryTest {
         assertThat(siblings).isEqualTo(PERSON_8_SIBLINGS);
     }
 
+    @Test
+    void shouldFindAncestorsByGeneration() {
+        List<List<Person>> ancestors = repo.findAncestors(1, 3);
+
+        assertThat(ancestors).hasSize(1);
+        assertThat(ancestors.get(0)).extracting(Person::getId).containsExactly(16, 17);
+    }
+
+    @Test
+    void shouldFindDescendantsByGeneration() {
+        List<List<Person>> descendants = repo.findDescendants(17, 2);
+
+        assertThat(descendants).hasSize(1);
+        assertThat(descendants.get(0)).extracting(Person::getId).containsExactly(1, 2, 8, 9, 10, 11, 12);
+        assertThatThrownBy(() -> repo.findDescendants(17, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
     @Test
 	void shouldFindAllPeopleSorted() {
         List<Person> people = repo.findPeople();
@@ -128,6 +384,69 @@ class DynamoRepositoryTest {
         assertThat(people.get(1).getName()).isEqualTo("Mr Test");
     }
 
+    @Test
+    void shouldPageThroughPeopleInNameOrder() {
+        ResultPage<Person> page = repo.findPeopleByName(3, null);
+        assertThat(page.getItems()).extracting(Person::getName).containsExactly("First Person", "Mr Test", "Mr Test1");
+
+        List<String> names = new ArrayList<>();
+        names.addAll(page.getItems().stream().map(Person::getName).collect(toList()));
+        while (page.hasMore()) {
+            page = repo.findPeopleByName(3, page.getContinuationToken());
+            names.addAll(page.getItems().stream().map(Person::getName).collect(toList()));
+        }
+
+        assertThat(names).hasSize(peopleCount()).isSorted();
+    }
+
+    @Test
+    void shouldFindAllPeopleSortedWithParallelScan() {
+        List<Person> people = repo.findPeople(3);
+        assertThat(people).hasSize(peopleCount());
+        assertThat(people.get(0).getName()).isEqualTo("First Person");
+        assertThat(people.get(1).getName()).isEqualTo("Mr Test");
+    }
+
+    @Test
+    void shouldFindFirstPeopleByNameWithParallelScan() {
+        List<Person> people = repo.findPeople(3, 3);
+        assertThat(people).extracting(Person::getName).containsExactly("First Person", "Mr Test", "Mr Test1");
+    }
+
+    @Test
+    void shouldFindPersonAsynchronously() {
+        CompletableFuture<Optional<Person>> person = repo.async().findPerson(1);
+        assertThat(person.join()).hasValueSatisfying(p -> assertThat(p.toString()).isEqualTo(person(1).toString()));
+    }
+
+    @Test
+    void shouldFindSiblingsAsynchronously() {
+        CompletableFuture<Siblings> siblings = repo.async().findSiblings(1);
+        assertThat(siblings.join()).isEqualTo(PERSON_1_SIBLINGS);
+    }
+
+    @Test
+    void shouldPublishFactsForPerson() {
+        CollectingSubscriber<Fact> subscriber = new CollectingSubscriber<>(SubscriberConfig.defaults());
+        repo.async().publishFacts(1).subscribe(subscriber);
+        assertThat(subscriber.await()).hasSize(3);
+    }
+
+    @Test
+    void shouldReadThroughThePersonCache() {
+        DynamoRepository cachingRepo = new DynamoRepository(DynamoRepositoryConfig.builder()
+                .personCacheConfig(CacheConfig.builder().maximumSize(100).build())
+                .build());
+
+        Person first = cachingRepo.findPerson(2).get();
+        first.setName("Changed locally");
+        Person second = cachingRepo.findPerson(2).get();
+
+        assertThat(second.toString()).isEqualTo(person(2).toString());
+        assertThat(cachingRepo.personCacheStatistics().getHits()).isEqualTo(1);
+        assertThat(cachingRepo.personCacheStatistics().getMisses()).isEqualTo(1);
+    }
+
     @Test
     void shouldUpdateEntities() {
         Person person = repo.findPerson(21).get();
@@ -147,6 +466,58 @@ class DynamoRepositoryTest {
         assertThat(updatedFact.toString()).isEqualTo(fact.toString());
     }
 
+    @Test
+    void shouldRetryConflictingUpdatesThroughTheConflictResolver() {
+        DynamoRepository retryingRepo = new DynamoRepository(DynamoRepositoryConfig.builder()
+                .updateConfig(UpdateConfig.builder()
+                        .maxTransactionSize(1)
+                        .conflictResolver(ConflictResolver.keepAttempted())
+                        .build())
+                .build());
+
+        Person first = retryingRepo.findPerson(14).get();
+        Person second = retryingRepo.findPerson(14).get();
+        Person other = retryingRepo.findPerson(15).get();
+        first.setYearOfDeath(1950);
+        retryingRepo.updateEntities(List.of(first));
+
+        second.setYearOfDeath(1960);
+        other.setYearOfDeath(1970);
+        UpdateStatistics statistics = retryingRepo.updateEntities(asList(second, other));
+
+        assertThat(statistics.getItemsUpdated()).isEqualTo(2);
+        assertThat(statistics.getTransactions()).isEqualTo(3);
+        assertThat(statistics.getConflicts()).isEqualTo(1);
+        assertThat(statistics.conflictRate()).isEqualTo(1.0 / 3);
+        assertThat(retryingRepo.findPerson(14).get().getYearOfDeath()).isEqualTo(1960);
+        assertThat(retryingRepo.findPerson(14).get().getVersion()).isEqualTo(second.getVersion());
+        assertThat(retryingRepo.findPerson(15).get().getYearOfDeath()).isEqualTo(1970);
+    }
+
+    @Test
+    void shouldReportCommittedAndUncommittedChunksWhenAnUpdateFails() {
+        DynamoRepository chunkedRepo = new DynamoRepository(DynamoRepositoryConfig.builder()
+                .updateConfig(UpdateConfig.builder()
+                        .maxTransactionSize(1)
+                        .maxConcurrentTransactions(1)
+                        .build())
+                .build());
+
+        Person fresh = chunkedRepo.findPerson(15).get();
+        Person stale = chunkedRepo.findPerson(15).get();
+        Person skipped = chunkedRepo.findPerson(14).get();
+
+        assertThatThrownBy(() -> chunkedRepo.updateEntities(asList(fresh, stale, skipped)))
+            .isInstanceOf(CompletionException.class)
+            .hasCauseInstanceOf(UpdateFailedException.class)
+            .satisfies(e -> {
+                UpdateFailedException failure = (UpdateFailedException) e.getCause();
+                assertThat(failure.getStatistics().getItemsUpdated()).isEqualTo(1);
+                assertThat(failure.getUncommitted()).containsExactly(stale, skipped);
+            });
+        assertThat(chunkedRepo.findPerson(15).get().getVersion()).isEqualTo(fresh.getVersion());
+    }
+
     @Test
     void shouldHandleOptimisticLockingOfEntities() {
         Person person = repo.findPerson(21).get();
@@ -0,0 +1,74 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.v2.dynamo.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static co.cmatts.aws.v2.dynamo.DynamoDbTestDataFactory.person;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EntityCacheTest {
+
+    private static final CacheConfig CONFIG = CacheConfig.builder()
+            .maximumSize(2)
+            .ttl(Duration.ofMinutes(1L))
+            .build();
+
+    @Test
+    void shouldReturnCopiesOfCachedEntities() {
+        EntityCache<Integer, Person> cache = new EntityCache<>(CONFIG, Person::copy);
+        cache.put(1, person(1));
+
+        Person cached = cache.get(1).get();
+        cached.setName("Changed");
+
+        assertThat(cache.get(1).get().getName()).isEqualTo(person(1).getName());
+        assertThat(cache.statistics().getHits()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldEvictLeastRecentlyUsedEntities() {
+        EntityCache<Integer, Person> cache = new EntityCache<>(CONFIG, Person::copy);
+        cache.put(1, person(1));
+        cache.put(2, person(2));
+        cache.get(1);
+        cache.put(3, person(3));
+
+        assertThat(cache.get(1)).isPresent();
+        assertThat(cache.get(2)).isEmpty();
+        assertThat(cache.statistics().getEvictions()).isEqualTo(1);
+        assertThat(cache.statistics().getMisses()).isEqualTo(1);
+    }
+
+    @Test
+    void shouldExpireEntities() {
+        CacheConfig config = CacheConfig.builder().maximumSize(2).ttl(Duration.ZERO).build();
+        EntityCache<Integer, Person> cache = new EntityCache<>(config, Person::copy);
+        cache.put(1, person(1));
+
+        assertThat(cache.get(1)).isEmpty();
+    }
+
+    @Test
+    void shouldNotReplaceANewerVersion() {
+        EntityCache<Integer, Person> cache = new EntityCache<>(CONFIG, Person::copy);
+        Person updated = person(1);
+        updated.setVersion(2L);
+        updated.setName("Updated");
+
+        cache.put(1, updated);
+        cache.put(1, person(1));
+
+        assertThat(cache.get(1).get().getName()).isEqualTo("Updated");
+    }
+
+    @Test
+    void shouldDoNothingWhenDisabled() {
+        EntityCache<Integer, Person> cache = new EntityCache<>(CacheConfig.disabled(), Person::copy);
+        cache.put(1, person(1));
+
+        assertThat(cache.get(1)).isEmpty();
+        assertThat(cache.statistics().getMisses()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,94 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.dynamo.TraversalConfig;
+import co.cmatts.aws.v2.dynamo.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FamilyTraversalTest {
+
+    private static final Map<Integer, Person> PEOPLE = Stream.of(
+                    person(1, null, null),
+                    person(2, 1, null),
+                    person(3, 1, null),
+                    person(4, 2, 3),
+                    person(5, 2, 6),
+                    person(6, null, null))
+            .collect(Collectors.toMap(Person::getId, Function.identity()));
+
+    private final AtomicInteger batchReads = new AtomicInteger();
+
+    @Test
+    void shouldWalkAncestorsOneBatchPerGeneration() {
+        List<List<Person>> ancestors = traversal(TraversalConfig.defaults()).ancestors(PEOPLE.get(4), 5).join();
+
+        assertThat(ancestors).hasSize(2);
+        assertThat(ancestors.get(0)).extracting(Person::getId).containsExactly(2, 3);
+        assertThat(ancestors.get(1)).extracting(Person::getId).containsExactly(1);
+        assertThat(batchReads).hasValue(2);
+    }
+
+    @Test
+    void shouldWalkDescendantsWithoutRevisitingPeople() {
+        List<List<Person>> descendants = traversal(TraversalConfig.defaults()).descendants(1, 5).join();
+
+        assertThat(descendants).hasSize(2);
+        assertThat(descendants.get(0)).extracting(Person::getId).containsExactly(2, 3);
+        assertThat(descendants.get(1)).extracting(Person::getId).containsExactly(4, 5);
+    }
+
+    @Test
+    void shouldStopAtTheRequestedDepth() {
+        List<List<Person>> descendants = traversal(TraversalConfig.defaults()).descendants(1, 1).join();
+
+        assertThat(descendants).hasSize(1);
+        assertThat(descendants.get(0)).extracting(Person::getId).containsExactly(2, 3);
+    }
+
+    @Test
+    void shouldLimitTheFanOutOfEachGeneration() {
+        FamilyTraversal traversal = traversal(TraversalConfig.builder().maxFanOut(1).build());
+
+        assertThat(traversal.descendants(1, 1).join().get(0)).extracting(Person::getId).containsExactly(2);
+    }
+
+    @Test
+    void shouldRejectDepthsOutsideTheConfiguredRange() {
+        FamilyTraversal traversal = traversal(TraversalConfig.builder().maxDepth(3).build());
+
+        assertThatThrownBy(() -> traversal.descendants(1, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> traversal.descendants(1, 4)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private FamilyTraversal traversal(TraversalConfig config) {
+        return new FamilyTraversal(config, this::peopleById, FamilyTraversalTest::childrenOf);
+    }
+
+    private CompletableFuture<List<Person>> peopleById(List<Integer> ids) {
+        batchReads.incrementAndGet();
+        return completedFuture(ids.stream().map(PEOPLE::get).filter(Objects::nonNull).collect(toList()));
+    }
+
+    private static CompletableFuture<List<Person>> childrenOf(Integer id) {
+        return completedFuture(PEOPLE.values().stream()
+                .filter(p -> id.equals(p.getFatherId()) || id.equals(p.getMotherId()))
+                .collect(toList()));
+    }
+
+    private static Person person(Integer id, Integer fatherId, Integer motherId) {
+        return Person.builder().id(id).name("Person " + id).fatherId(fatherId).motherId(motherId).build();
+    }
+}
@@ -0,0 +1,68 @@
+package co.cmatts.aws.v2.dynamo;
+
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageStreamTest {
+
+    private static final SubscriberConfig CONFIG = SubscriberConfig.builder()
+            .prefetch(1)
+            .timeout(Duration.ofMillis(200L))
+            .build();
+
+    @Test
+    void shouldIteratePagesInOrder() {
+        SdkPublisher<Page<String>> publisher = subscriber -> {
+            subscriber.onSubscribe(new RecordingSubscription());
+            subscriber.onNext(Page.create(List.of("a", "b")));
+            subscriber.onComplete();
+        };
+
+        PageStream<String> items = PageStream.subscribe(CONFIG, publisher);
+
+        List<String> collected = new ArrayList<>();
+        items.forEachRemaining(collected::add);
+        assertThat(collected).containsExactly("a", "b");
+    }
+
+    @Test
+    void shouldFailWhenPublisherSendsMoreThanRequested() {
+        RecordingSubscription subscription = new RecordingSubscription();
+        SdkPublisher<Page<String>> publisher = subscriber -> {
+            subscriber.onSubscribe(subscription);
+            for (int i = 0; i < 4; i++) {
+                subscriber.onNext(Page.create(List.of("item" + i)));
+            }
+            subscriber.onComplete();
+        };
+
+        PageStream<String> items = PageStream.subscribe(CONFIG, publisher);
+
+        assertThatThrownBy(items::hasNext)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("more pages than were requested");
+        assertThat(subscription.cancelled).isTrue();
+    }
+
+    private static class RecordingSubscription implements Subscription {
+        private volatile boolean cancelled = false;
+
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.v2.dynamo.model.Person;
+import co.cmatts.aws.v2.dynamo.model.Siblings;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Collections.emptyList;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SiblingsBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int children;
+
+    private Person person;
+    private Set<Person> allSiblings;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42L);
+        allSiblings = new HashSet<>();
+        for (int id = 1; id <= children; id++) {
+            allSiblings.add(Person.builder()
+                    .id(id)
+                    .name("Child " + id)
+                    .fatherId(random.nextInt(10) == 0 ? null : 1_000_000 + random.nextInt(3))
+                    .motherId(random.nextInt(10) == 0 ? null : 2_000_000 + random.nextInt(3))
+                    .yearOfBirth(random.nextInt(20) == 0 ? null : 1850 + random.nextInt(50))
+                    .build());
+        }
+        person = allSiblings.iterator().next();
+    }
+
+    @Benchmark
+    public Siblings classify() {
+        return new Siblings(person, allSiblings, emptyList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(SiblingsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,59 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.v2.dynamo.model.Person;
+import co.cmatts.aws.v2.dynamo.model.Siblings;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+
+import static java.util.Collections.emptyList;
+import static java.util.Comparator.naturalOrder;
+import static java.util.Comparator.nullsFirst;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SiblingsTest {
+
+    @Test
+    void shouldOrderSiblingsWithUnknownYearsOfBirthFirst() {
+        Person person = person(1, 10, 20, 1900);
+        Set<Person> allSiblings = Set.of(
+                person,
+                person(2, 10, 20, null),
+                person(3, 10, 20, 1890),
+                person(4, 10, 20, 1890),
+                person(5, 10, null, 1880),
+                person(6, 10, 21, 1870),
+                person(7, null, 20, 1860),
+                person(8, 11, 20, null),
+                person(9, 12, 22, 1900));
+
+        Siblings siblings = new Siblings(person, allSiblings, emptyList());
+
+        assertThat(siblings.getFullSiblings()).extracting(Person::getId).containsExactly(2, 3, 4, 1);
+        assertThat(siblings.getStepByFather()).extracting(Person::getId).containsExactly(5, 6);
+        assertThat(siblings.getStepByMother()).extracting(Person::getId).containsExactly(7, 8);
+    }
+
+    @Test
+    void shouldClassifyLargeFamiliesWithoutComparatorViolations() {
+        Person person = person(0, 10, 20, 1900);
+        List<Person> allSiblings = new ArrayList<>();
+        for (int id = 1; id <= 5000; id++) {
+            allSiblings.add(person(id, id % 3 == 0 ? null : 10, id % 5 == 0 ? null : 20 + id % 2, id % 7 == 0 ? null : 1850 + id % 40));
+        }
+
+        Siblings siblings = new Siblings(person, allSiblings, emptyList());
+
+        assertThat(siblings.getFullSiblings()).isNotEmpty()
+                .isSortedAccordingTo(Comparator.comparing(Person::getYearOfBirth, nullsFirst(naturalOrder())));
+        assertThat(siblings.getStepByFather()).isNotEmpty()
+                .isSortedAccordingTo(Comparator.comparing(Person::getMotherId, nullsFirst(naturalOrder())));
+    }
+
+    private static Person person(Integer id, Integer fatherId, Integer motherId, Integer yearOfBirth) {
+        return Person.builder().id(id).fatherId(fatherId).motherId(motherId).yearOfBirth(yearOfBirth).build();
+    }
+}
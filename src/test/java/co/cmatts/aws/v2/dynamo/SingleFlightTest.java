@@ -0,0 +1,71 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.v2.dynamo.model.Person;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static co.cmatts.aws.v2.dynamo.DynamoDbTestDataFactory.person;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final LookupKey KEY = new LookupKey("people", null, 1);
+
+    @Test
+    void shouldShareAnInFlightCall() {
+        SingleFlight<LookupKey> singleFlight = new SingleFlight<>();
+        CompletableFuture<Person> response = new CompletableFuture<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        CompletableFuture<Person> leader = singleFlight.execute(KEY, () -> {
+            calls.incrementAndGet();
+            return response;
+        }, Person::copy);
+        CompletableFuture<Person> follower = singleFlight.execute(KEY, () -> {
+            calls.incrementAndGet();
+            return response;
+        }, Person::copy);
+
+        response.complete(person(1));
+
+        assertThat(calls.get()).isEqualTo(1);
+        assertThat(singleFlight.coalescedCalls()).isEqualTo(1);
+        assertThat(singleFlight.inFlightCalls()).isEqualTo(0);
+        assertThat(follower.join()).isEqualTo(leader.join());
+        assertThat(follower.join()).isNotSameAs(leader.join());
+    }
+
+    @Test
+    void shouldStartANewCallOnceTheLastHasCompleted() {
+        SingleFlight<LookupKey> singleFlight = new SingleFlight<>();
+        AtomicInteger calls = new AtomicInteger();
+
+        singleFlight.execute(KEY, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(person(1));
+        }, Person::copy).join();
+        singleFlight.execute(KEY, () -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(person(1));
+        }, Person::copy).join();
+
+        assertThat(calls.get()).isEqualTo(2);
+    }
+
+    @Test
+    void shouldShareFailures() {
+        SingleFlight<LookupKey> singleFlight = new SingleFlight<>();
+        CompletableFuture<Person> response = new CompletableFuture<>();
+
+        CompletableFuture<Person> leader = singleFlight.execute(KEY, () -> response, Person::copy);
+        CompletableFuture<Person> follower = singleFlight.execute(KEY, () -> response, Person::copy);
+        response.completeExceptionally(new IllegalStateException("boom"));
+
+        assertThatThrownBy(leader::join).hasRootCauseMessage("boom");
+        assertThatThrownBy(follower::join).hasRootCauseMessage("boom");
+        assertThat(singleFlight.inFlightCalls()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,44 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.v2.dynamo.model.Fact;
+import co.cmatts.aws.v2.dynamo.model.Person;
+import co.cmatts.aws.v2.dynamo.model.StaticSchemas;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.IndexMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+
+import static co.cmatts.aws.v2.dynamo.DynamoDbTestDataFactory.fact;
+import static co.cmatts.aws.v2.dynamo.DynamoDbTestDataFactory.person;
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StaticSchemasTest {
+
+    @Test
+    void shouldMapPeopleLikeTheBeanSchema() {
+        TableSchema<Person> beanSchema = TableSchema.fromBean(Person.class);
+        Person person = person(1);
+
+        assertThat(StaticSchemas.PERSON.itemToMap(person, false)).isEqualTo(beanSchema.itemToMap(person, false));
+        assertThat(StaticSchemas.PERSON.mapToItem(beanSchema.itemToMap(person, true)).toString()).isEqualTo(person.toString());
+        assertThat(StaticSchemas.PERSON.tableMetadata().indices()).extracting(IndexMetadata::name)
+                .containsExactlyInAnyOrderElementsOf(beanSchema.tableMetadata().indices().stream().map(IndexMetadata::name).collect(toList()));
+    }
+
+    @Test
+    void shouldMapFactsLikeTheBeanSchema() {
+        TableSchema<Fact> beanSchema = TableSchema.fromBean(Fact.class);
+        Fact fact = fact(1);
+
+        assertThat(StaticSchemas.FACT.itemToMap(fact, false)).isEqualTo(beanSchema.itemToMap(fact, false));
+        assertThat(StaticSchemas.FACT.mapToItem(beanSchema.itemToMap(fact, true)).toString()).isEqualTo(fact.toString());
+        assertThat(StaticSchemas.FACT.tableMetadata().indices()).extracting(IndexMetadata::name)
+                .containsExactlyInAnyOrderElementsOf(beanSchema.tableMetadata().indices().stream().map(IndexMetadata::name).collect(toList()));
+    }
+
+    @Test
+    void shouldUseStaticSchemasForMappedModels() {
+        assertThat(Dynamo.getTableSchema(Person.class)).isSameAs(StaticSchemas.PERSON);
+        assertThat(Dynamo.getTableSchema(Fact.class)).isSameAs(StaticSchemas.FACT);
+    }
+}
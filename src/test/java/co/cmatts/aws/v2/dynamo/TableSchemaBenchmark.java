@@ -0,0 +1,63 @@
+package co.cmatts.aws.v2.dynamo;
+
+import co.cmatts.aws.v2.dynamo.model.Person;
+import co.cmatts.aws.v2.dynamo.model.StaticSchemas;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static co.cmatts.aws.v2.dynamo.DynamoDbTestDataFactory.person;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableSchemaBenchmark {
+
+    private final TableSchema<Person> beanSchema = TableSchema.fromBean(Person.class);
+    private final TableSchema<Person> staticSchema = StaticSchemas.PERSON;
+    private final Person person = person(1);
+    private final Map<String, AttributeValue> item = staticSchema.itemToMap(person, true);
+
+    @Benchmark
+    public TableSchema<Person> createBeanSchema() {
+        return TableSchema.fromBean(Person.class);
+    }
+
+    @Benchmark
+    public TableSchema<Person> createStaticSchema() {
+        return StaticSchemas.personSchema();
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> beanItemToMap() {
+        return beanSchema.itemToMap(person, true);
+    }
+
+    @Benchmark
+    public Map<String, AttributeValue> staticItemToMap() {
+        return staticSchema.itemToMap(person, true);
+    }
+
+    @Benchmark
+    public Person beanMapToItem() {
+        return beanSchema.mapToItem(item);
+    }
+
+    @Benchmark
+    public Person staticMapToItem() {
+        return staticSchema.mapToItem(item);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(TableSchemaBenchmark.class.getSimpleName()).build()).run();
+    }
+}